@@ -0,0 +1,34 @@
+package com.betterme.config;
+
+import com.betterme.service.DailyActivityService;
+import com.betterme.service.HabitBitmapService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the daily activity rollup and the per-habit check-in bitmaps
+ * from habit_checkins on startup.
+ * Existing history is backfilled by migration V7, so this is only a repair
+ * tool - off by default, enable with ROLLUP_BACKFILL=true
+ * Partitions detached by CheckInPartitionService (retention) are not read:
+ * their days disappear from the rebuilt rollup and bitmaps.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rollup.backfill-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RollupBackfillRunner implements CommandLineRunner {
+
+    private final DailyActivityService dailyActivityService;
+    private final HabitBitmapService habitBitmapService;
+
+    @Override
+    public void run(String... args) {
+        log.info("📊 Backfilling daily activity rollup and check-in bitmaps...");
+        dailyActivityService.rebuildAll();
+        habitBitmapService.rebuildAll();
+    }
+}
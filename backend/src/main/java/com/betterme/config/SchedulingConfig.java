@@ -0,0 +1,12 @@
+package com.betterme.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. the nightly streak decay)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,8 @@
 package com.betterme.config;
 
+import com.betterme.model.User;
 import com.betterme.repository.UserRepository;
+import com.betterme.security.BoundedBCryptPasswordEncoder;
 import com.betterme.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
@@ -13,9 +15,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,6 +25,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
 import java.util.Arrays;
 import java.util.List;
@@ -38,13 +42,27 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
 
     @Value("${app.frontend-url}")
     private String frontendUrl;
 
-    public SecurityConfig(@Lazy JwtAuthenticationFilter jwtAuthFilter, UserRepository userRepository) {
+    /**
+     * PASSWORD ENCODER
+     * BCrypt is the industry standard for password hashing
+     * NEVER store plain text passwords!
+     *
+     * How it works:
+     * "password123" → "$2a$10$N9qo8uLOickgx2ZMRZoMy..." (one-way hash)
+     *
+     * BoundedBCryptPasswordEncoder runs it on its own bounded pool, with a
+     * cost tuned at startup (see that class)
+     */
+    public SecurityConfig(@Lazy JwtAuthenticationFilter jwtAuthFilter, UserRepository userRepository,
+            BoundedBCryptPasswordEncoder passwordEncoder) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
     }
 
     /**
@@ -58,16 +76,18 @@ public class SecurityConfig {
     }
 
     /**
-     * PASSWORD ENCODER
-     * BCrypt is the industry standard for password hashing
-     * NEVER store plain text passwords!
-     * 
-     * How it works:
-     * "password123" → "$2a$10$N9qo8uLOickgx2ZMRZoMy..." (one-way hash)
+     * PASSWORD UPGRADE
+     * After a successful login, a hash with an older (lower) BCrypt cost
+     * is replaced by one with the current cost
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = (User) userDetails;
+            userRepository.updatePassword(user.getId(), newPassword);
+            user.setPassword(newPassword);
+            return user;
+        };
     }
 
     /**
@@ -79,7 +99,8 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
@@ -154,6 +175,10 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
+                // Missing, expired or revoked token -> 401, so clients know to refresh
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+
                 // Use our custom authentication provider
                 .authenticationProvider(authenticationProvider())
 
@@ -1,8 +1,9 @@
 package com.betterme.controller;
 
-import com.betterme.model.User;
-import com.betterme.service.AnalyticsService;
+import com.betterme.security.AuthUser;
 import com.betterme.service.AnalyticsService.*;
+import com.betterme.service.AnalyticsService;
+import com.betterme.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,6 +20,7 @@ import java.util.List;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final UserService userService;
 
     /**
      * DAILY TRENDS
@@ -32,14 +34,14 @@ public class AnalyticsController {
             @RequestParam(defaultValue = "daily") String period,
             @RequestParam(required = false) Integer days,
             @RequestParam(required = false) Integer weeks,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
 
         if ("weekly".equals(period)) {
             int w = weeks != null ? weeks : 12;
-            return ResponseEntity.ok(analyticsService.getWeeklyTrends(user, w));
+            return ResponseEntity.ok(analyticsService.getWeeklyTrends(userService.reference(user), w));
         } else {
             int d = days != null ? days : 30;
-            return ResponseEntity.ok(analyticsService.getDailyTrends(user, d));
+            return ResponseEntity.ok(analyticsService.getDailyTrends(userService.reference(user), d));
         }
     }
 
@@ -53,23 +55,25 @@ public class AnalyticsController {
     @GetMapping("/heatmap")
     public ResponseEntity<HeatmapData> getHeatmap(
             @RequestParam(required = false) Integer year,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
 
         int targetYear = year != null ? year : LocalDate.now().getYear();
-        return ResponseEntity.ok(analyticsService.getYearHeatmap(user, targetYear));
+        return ResponseEntity.ok(analyticsService.getYearHeatmap(userService.reference(user), targetYear));
     }
 
     /**
      * PER-HABIT ANALYTICS
      * GET /api/analytics/habits
      * GET /api/analytics/habits?days=30
+     * GET /api/analytics/habits?days=30&completed=true
      * 
      * Returns completion rates for each habit
      */
     @GetMapping("/habits")
     public ResponseEntity<List<HabitAnalytics>> getHabitAnalytics(
             @RequestParam(defaultValue = "30") int days,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(analyticsService.getHabitAnalytics(user, days));
+            @RequestParam(required = false) Boolean completed,
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(analyticsService.getHabitAnalytics(userService.reference(user), days, completed));
     }
 }
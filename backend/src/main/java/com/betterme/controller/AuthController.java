@@ -6,12 +6,16 @@ import com.betterme.model.VerificationToken;
 import com.betterme.model.VerificationToken.TokenType;
 import com.betterme.repository.UserRepository;
 import com.betterme.repository.VerificationTokenRepository;
+import com.betterme.security.TokenRevocationService;
 import com.betterme.service.AuthService;
 import com.betterme.service.EmailService;
+import com.betterme.service.RefreshTokenService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +38,8 @@ public class AuthController {
     private final UserRepository userRepository;
     private final VerificationTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * REGISTER ENDPOINT - Now sends verification email
@@ -66,6 +72,34 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request, httpRequest));
     }
 
+    /**
+     * REFRESH ENDPOINT - New token pair for a (single-use) refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.refresh(request.getRefreshToken())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(AuthResponse.builder()
+                        .message("Session expired. Please login again.")
+                        .build()));
+    }
+
+    /**
+     * LOGOUT ENDPOINT - Revokes the current access token and its refresh token
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ")
+                ? authHeader.substring(7)
+                : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Logged out"));
+    }
+
     /**
      * VERIFY EMAIL - Verify user's email with token
      */
@@ -203,6 +237,8 @@ public class AuthController {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        revocationService.revokeAllForUser(user.getId());
+        refreshTokenService.revokeAll(user);
 
         // Mark token as used
         resetToken.setUsed(true);
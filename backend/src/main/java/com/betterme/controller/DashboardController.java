@@ -1,8 +1,9 @@
 package com.betterme.controller;
 
 import com.betterme.dto.*;
-import com.betterme.model.User;
+import com.betterme.security.AuthUser;
 import com.betterme.service.DashboardService;
+import com.betterme.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,6 +20,7 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final UserService userService;
 
     /**
      * SUMMARY - Quick overview stats
@@ -28,8 +30,8 @@ public class DashboardController {
      */
     @GetMapping("/summary")
     public ResponseEntity<DashboardSummary> getSummary(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(dashboardService.getSummary(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(dashboardService.getSummary(userService.reference(user)));
     }
 
     /**
@@ -40,8 +42,8 @@ public class DashboardController {
      */
     @GetMapping("/weekly")
     public ResponseEntity<WeeklyProgress> getWeeklyProgress(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(dashboardService.getWeeklyProgress(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(dashboardService.getWeeklyProgress(userService.reference(user)));
     }
 
     /**
@@ -53,7 +55,7 @@ public class DashboardController {
      */
     @GetMapping("/monthly")
     public ResponseEntity<MonthlyCalendar> getMonthlyCalendar(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthUser user,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month) {
 
@@ -62,7 +64,7 @@ public class DashboardController {
         int targetYear = year != null ? year : now.getYear();
         int targetMonth = month != null ? month : now.getMonthValue();
 
-        return ResponseEntity.ok(dashboardService.getMonthlyCalendar(user, targetYear, targetMonth));
+        return ResponseEntity.ok(dashboardService.getMonthlyCalendar(userService.reference(user), targetYear, targetMonth));
     }
 
     /**
@@ -73,8 +75,8 @@ public class DashboardController {
      */
     @GetMapping("/streaks")
     public ResponseEntity<List<HabitResponse>> getStreakLeaderboard(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(dashboardService.getStreakLeaderboard(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(dashboardService.getStreakLeaderboard(userService.reference(user)));
     }
 
     /**
@@ -85,7 +87,7 @@ public class DashboardController {
      */
     @GetMapping("/achievements")
     public ResponseEntity<List<Achievement>> getAchievements(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(dashboardService.getAchievements(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(dashboardService.getAchievements(userService.reference(user)));
     }
 }
@@ -2,8 +2,9 @@ package com.betterme.controller;
 
 import com.betterme.dto.GoalRequest;
 import com.betterme.dto.GoalResponse;
-import com.betterme.model.User;
+import com.betterme.security.AuthUser;
 import com.betterme.service.GoalService;
+import com.betterme.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,14 +22,15 @@ import java.util.Map;
 public class GoalController {
 
     private final GoalService goalService;
+    private final UserService userService;
 
     /**
      * Get all goals for the user
      */
     @GetMapping
     public ResponseEntity<List<GoalResponse>> getAllGoals(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(goalService.getUserGoals(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(goalService.getUserGoals(userService.reference(user)));
     }
 
     /**
@@ -37,8 +39,8 @@ public class GoalController {
     @GetMapping("/{id}")
     public ResponseEntity<GoalResponse> getGoal(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(goalService.getGoal(id, user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(goalService.getGoal(id, userService.reference(user)));
     }
 
     /**
@@ -46,8 +48,8 @@ public class GoalController {
      */
     @GetMapping("/stats")
     public ResponseEntity<GoalService.GoalStats> getStats(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(goalService.getStats(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(goalService.getStats(userService.reference(user)));
     }
 
     /**
@@ -56,8 +58,8 @@ public class GoalController {
     @PostMapping
     public ResponseEntity<GoalResponse> createGoal(
             @Valid @RequestBody GoalRequest request,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(goalService.createGoal(request, user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(goalService.createGoal(request, userService.reference(user)));
     }
 
     /**
@@ -67,8 +69,8 @@ public class GoalController {
     public ResponseEntity<GoalResponse> updateGoal(
             @PathVariable Long id,
             @Valid @RequestBody GoalRequest request,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(goalService.updateGoal(id, request, user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(goalService.updateGoal(id, request, userService.reference(user)));
     }
 
     /**
@@ -77,8 +79,8 @@ public class GoalController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteGoal(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
-        goalService.deleteGoal(id, user);
+            @AuthenticationPrincipal AuthUser user) {
+        goalService.deleteGoal(id, userService.reference(user));
         return ResponseEntity.ok(Map.of("message", "Goal deleted successfully"));
     }
 
@@ -91,12 +93,12 @@ public class GoalController {
     public ResponseEntity<GoalResponse> updateProgress(
             @PathVariable Long id,
             @RequestBody Map<String, Integer> request,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
 
         if (request.containsKey("value")) {
-            return ResponseEntity.ok(goalService.updateProgress(id, request.get("value"), user));
+            return ResponseEntity.ok(goalService.updateProgress(id, request.get("value"), userService.reference(user)));
         } else if (request.containsKey("increment")) {
-            return ResponseEntity.ok(goalService.incrementProgress(id, request.get("increment"), user));
+            return ResponseEntity.ok(goalService.incrementProgress(id, request.get("increment"), userService.reference(user)));
         } else {
             throw new RuntimeException("Must provide 'value' or 'increment'");
         }
@@ -1,16 +1,24 @@
 package com.betterme.controller;
 
+import com.betterme.dto.BatchCheckInRequest;
+import com.betterme.dto.BatchCheckInResponse;
+import com.betterme.dto.CheckInHistoryPage;
 import com.betterme.dto.HabitRequest;
 import com.betterme.dto.HabitResponse;
-import com.betterme.model.HabitCheckIn;
-import com.betterme.model.User;
+import com.betterme.security.AuthUser;
 import com.betterme.service.HabitService;
+import com.betterme.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +30,7 @@ import java.util.Map;
 public class HabitController {
 
     private final HabitService habitService;
+    private final UserService userService;
 
     // LIST & GET
 
@@ -30,8 +39,8 @@ public class HabitController {
      */
     @GetMapping
     public ResponseEntity<List<HabitResponse>> getAllHabits(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(habitService.getUserHabits(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.getUserHabits(userService.reference(user)));
     }
 
     /**
@@ -40,8 +49,8 @@ public class HabitController {
     @GetMapping("/{id}")
     public ResponseEntity<HabitResponse> getHabit(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(habitService.getHabit(id, user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.getHabit(id, userService.reference(user)));
     }
 
     /**
@@ -49,8 +58,8 @@ public class HabitController {
      */
     @GetMapping("/stats")
     public ResponseEntity<HabitService.HabitStats> getStats(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(habitService.getUserStats(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.getUserStats(userService.reference(user)));
     }
 
     // CREATE & UPDATE
@@ -63,8 +72,8 @@ public class HabitController {
     @PostMapping
     public ResponseEntity<HabitResponse> createHabit(
             @Valid @RequestBody HabitRequest request,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(habitService.createHabit(request, user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.createHabit(request, userService.reference(user)));
     }
 
     /**
@@ -74,8 +83,8 @@ public class HabitController {
     public ResponseEntity<HabitResponse> updateHabit(
             @PathVariable Long id,
             @Valid @RequestBody HabitRequest request,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(habitService.updateHabit(id, request, user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.updateHabit(id, request, userService.reference(user)));
     }
 
     /**
@@ -84,8 +93,8 @@ public class HabitController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteHabit(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
-        habitService.deleteHabit(id, user);
+            @AuthenticationPrincipal AuthUser user) {
+        habitService.deleteHabit(id, userService.reference(user));
         return ResponseEntity.ok(Map.of("message", "Habit deleted successfully"));
     }
 
@@ -95,27 +104,61 @@ public class HabitController {
      * Check in to a habit for today
      * 
      * This is the MAIN action users will do daily!
+     * Optional body: {"notes": "...", "date": "2024-01-31"} to log a past day
      */
     @PostMapping("/{id}/checkin")
     public ResponseEntity<HabitResponse> checkIn(
             @PathVariable Long id,
             @RequestBody(required = false) Map<String, String> body,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
 
         String notes = body != null ? body.get("notes") : null;
-        return ResponseEntity.ok(habitService.checkIn(id, user, notes));
+        String date = body != null ? body.get("date") : null;
+        LocalDate checkInDate;
+        try {
+            checkInDate = date != null ? LocalDate.parse(date) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date, expected yyyy-MM-dd");
+        }
+        return ResponseEntity.ok(habitService.checkIn(id, userService.reference(user), checkInDate, notes));
     }
 
     /**
-     * Get check-in history for a habit
+     * Check in to several habits at once
+     * Returns one result per item: CHECKED_IN, ALREADY_CHECKED_IN or NOT_FOUND
+     */
+    @PostMapping("/checkin/batch")
+    public ResponseEntity<BatchCheckInResponse> batchCheckIn(
+            @Valid @RequestBody BatchCheckInRequest request,
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.batchCheckIn(request, userService.reference(user)));
+    }
+
+    /**
+     * Undo a check-in (today, or a past day with ?date=2024-01-31)
+     */
+    @DeleteMapping("/{id}/checkin")
+    public ResponseEntity<HabitResponse> undoCheckIn(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.undoCheckIn(id, userService.reference(user), date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Get check-in history for a habit, one page at a time (newest first)
      * 
-     * @param days Number of days to look back (default: 30)
+     * @param before Cursor: nextBefore from the previous page (default: from today)
+     * @param days   Optional: only the last N days
+     * @param limit  Page size (default: 30, max: 100)
      */
     @GetMapping("/{id}/history")
-    public ResponseEntity<List<HabitCheckIn>> getHistory(
+    public ResponseEntity<CheckInHistoryPage> getHistory(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "30") int days,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(habitService.getCheckInHistory(id, user, days));
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(defaultValue = "30") int limit,
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(habitService.getCheckInHistory(id, userService.reference(user), before, days, limit));
     }
 }
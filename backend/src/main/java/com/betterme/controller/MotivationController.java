@@ -1,8 +1,9 @@
 package com.betterme.controller;
 
 import com.betterme.dto.MotivationResponse;
-import com.betterme.model.User;
+import com.betterme.security.AuthUser;
 import com.betterme.service.MotivationService;
+import com.betterme.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,6 +19,7 @@ import java.util.Map;
 public class MotivationController {
 
     private final MotivationService motivationService;
+    private final UserService userService;
 
     /**
      * DAILY MOTIVATION
@@ -28,8 +30,8 @@ public class MotivationController {
      */
     @GetMapping("/daily")
     public ResponseEntity<MotivationResponse> getDailyMotivation(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(motivationService.getDailyMotivation(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(motivationService.getDailyMotivation(userService.reference(user)));
     }
 
     /**
@@ -42,8 +44,8 @@ public class MotivationController {
     @PostMapping("/habit/{habitId}")
     public ResponseEntity<MotivationResponse> getHabitTips(
             @PathVariable Long habitId,
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(motivationService.getHabitTips(user, habitId));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(motivationService.getHabitTips(userService.reference(user), habitId));
     }
 
     /**
@@ -55,8 +57,8 @@ public class MotivationController {
      */
     @GetMapping("/celebration")
     public ResponseEntity<MotivationResponse> getCelebration(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(motivationService.getCelebration(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(motivationService.getCelebration(userService.reference(user)));
     }
 
     /**
@@ -71,9 +73,9 @@ public class MotivationController {
     @PostMapping("/chat")
     public ResponseEntity<MotivationResponse> chat(
             @RequestBody Map<String, String> request,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
 
         String userMessage = request.getOrDefault("message", "Hello!");
-        return ResponseEntity.ok(motivationService.chat(user, userMessage));
+        return ResponseEntity.ok(motivationService.chat(userService.reference(user), userMessage));
     }
 }
@@ -1,8 +1,9 @@
 package com.betterme.controller;
 
 import com.betterme.model.Notification;
-import com.betterme.model.User;
+import com.betterme.security.AuthUser;
 import com.betterme.service.NotificationService;
+import com.betterme.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,14 +19,15 @@ import java.util.Map;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final UserService userService;
 
     /**
      * Get all notifications for the current user
      */
     @GetMapping
     public ResponseEntity<List<Notification>> getNotifications(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(notificationService.getNotifications(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(notificationService.getNotifications(userService.reference(user)));
     }
 
     /**
@@ -33,8 +35,8 @@ public class NotificationController {
      */
     @GetMapping("/unread")
     public ResponseEntity<List<Notification>> getUnreadNotifications(
-            @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(notificationService.getUnreadNotifications(user));
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(notificationService.getUnreadNotifications(userService.reference(user)));
     }
 
     /**
@@ -42,9 +44,9 @@ public class NotificationController {
      */
     @GetMapping("/unread/count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
         Map<String, Long> response = new HashMap<>();
-        response.put("count", notificationService.getUnreadCount(user));
+        response.put("count", notificationService.getUnreadCount(userService.reference(user)));
         return ResponseEntity.ok(response);
     }
 
@@ -53,8 +55,8 @@ public class NotificationController {
      */
     @PostMapping("/read-all")
     public ResponseEntity<Map<String, String>> markAllAsRead(
-            @AuthenticationPrincipal User user) {
-        notificationService.markAllAsRead(user);
+            @AuthenticationPrincipal AuthUser user) {
+        notificationService.markAllAsRead(userService.reference(user));
         Map<String, String> response = new HashMap<>();
         response.put("message", "All notifications marked as read");
         return ResponseEntity.ok(response);
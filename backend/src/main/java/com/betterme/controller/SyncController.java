@@ -0,0 +1,46 @@
+package com.betterme.controller;
+
+import com.betterme.dto.SyncRequest;
+import com.betterme.dto.SyncResponse;
+import com.betterme.security.AuthUser;
+import com.betterme.service.SyncService;
+import com.betterme.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Delta sync for offline-first clients
+ * Replaces re-fetching habits, goals, dashboard and notifications on every app open.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+    private final UserService userService;
+
+    /**
+     * Changes since the cursor (omit since for a full sync)
+     */
+    @GetMapping
+    public ResponseEntity<SyncResponse> pull(
+            @RequestParam(required = false) Long since,
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(syncService.sync(SyncRequest.builder().since(since).build(), userService.reference(user)));
+    }
+
+    /**
+     * Upload queued offline check-ins, then get changes since the cursor
+     * Re-sending the same check-ins is safe (idempotent).
+     */
+    @PostMapping
+    public ResponseEntity<SyncResponse> push(
+            @Valid @RequestBody SyncRequest request,
+            @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(syncService.sync(request, userService.reference(user)));
+    }
+}
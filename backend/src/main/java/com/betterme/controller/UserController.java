@@ -1,7 +1,7 @@
 package com.betterme.controller;
 
 import com.betterme.dto.*;
-import com.betterme.model.User;
+import com.betterme.security.AuthUser;
 import com.betterme.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,7 +23,7 @@ public class UserController {
      */
     @GetMapping("/me")
     public ResponseEntity<UserProfileResponse> getProfile(
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
         return ResponseEntity.ok(userService.getProfile(user));
     }
 
@@ -32,23 +32,21 @@ public class UserController {
      */
     @PutMapping("/profile")
     public ResponseEntity<UserProfileResponse> updateProfile(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthUser user,
             @RequestBody ProfileUpdateRequest request) {
         return ResponseEntity.ok(userService.updateProfile(user, request));
     }
 
     /**
      * Change password
+     * Other sessions are logged out; the response carries the caller's new token pair.
      */
     @PutMapping("/password")
-    public ResponseEntity<Map<String, String>> changePassword(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<?> changePassword(
+            @AuthenticationPrincipal AuthUser user,
             @RequestBody PasswordChangeRequest request) {
         try {
-            userService.changePassword(user, request);
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Password changed successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(userService.changePassword(user, request));
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -61,7 +59,7 @@ public class UserController {
      */
     @PostMapping("/avatar")
     public ResponseEntity<UserProfileResponse> uploadAvatar(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthUser user,
             @RequestBody AvatarUploadRequest request) {
         return ResponseEntity.ok(userService.updateAvatar(user, request.getAvatar()));
     }
@@ -71,7 +69,7 @@ public class UserController {
      */
     @DeleteMapping("/avatar")
     public ResponseEntity<UserProfileResponse> removeAvatar(
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthUser user) {
         return ResponseEntity.ok(userService.removeAvatar(user));
     }
 }
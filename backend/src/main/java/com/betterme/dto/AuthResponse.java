@@ -18,7 +18,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AuthResponse {
 
-    private String token; // JWT token
+    private String token; // JWT access token (short-lived)
+    private String refreshToken; // Use once at /api/auth/refresh for a new token pair
+    private Long expiresIn; // Access token lifetime in seconds
     @Builder.Default
     private String type = "Bearer"; // Token type (always "Bearer" for JWT)
     private Long id; // User ID
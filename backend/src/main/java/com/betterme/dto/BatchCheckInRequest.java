@@ -0,0 +1,46 @@
+package com.betterme.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Check in several habits at once (e.g. end of day on mobile)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCheckInRequest {
+
+    /**
+     * Day to check in for (default: today)
+     */
+    private LocalDate date;
+
+    @NotEmpty(message = "At least one check-in is required")
+    @Size(max = 100, message = "At most 100 check-ins per batch")
+    @Valid
+    private List<Item> checkIns;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "Habit id is required")
+        private Long habitId;
+
+        @Size(max = 500, message = "Notes too long")
+        private String notes;
+    }
+}
@@ -0,0 +1,41 @@
+package com.betterme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-habit results of a batch check-in, in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCheckInResponse {
+
+    private LocalDate date;
+    private int checkedIn; // Number of new check-ins
+    private List<Result> results;
+
+    public enum Status {
+        CHECKED_IN,
+        ALREADY_CHECKED_IN,
+        NOT_FOUND,
+        INVALID_DATE // Future date or beyond the backfill window (offline sync upload)
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long habitId;
+        private Status status;
+        private Integer currentStreak; // null when NOT_FOUND
+        private Integer longestStreak;
+    }
+}
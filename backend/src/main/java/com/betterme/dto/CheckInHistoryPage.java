@@ -0,0 +1,29 @@
+package com.betterme.dto;
+
+import com.betterme.repository.HabitCheckInRepository;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One page of a habit's check-in history, newest first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInHistoryPage {
+
+    private List<HabitCheckInRepository.HistoryEntry> checkIns;
+
+    private boolean hasMore;
+
+    /**
+     * Pass as "before" to get the next page (null on the last page)
+     */
+    private LocalDate nextBefore;
+}
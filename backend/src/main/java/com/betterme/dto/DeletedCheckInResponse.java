@@ -0,0 +1,35 @@
+package com.betterme.dto;
+
+import com.betterme.model.DeletedCheckIn;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An undone check-in: clients drop their copy of (habitId, checkInDate)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedCheckInResponse {
+
+    private Long habitId;
+    private LocalDate checkInDate;
+    private LocalDateTime deletedAt;
+
+    /**
+     * Factory method
+     */
+    public static DeletedCheckInResponse fromEntity(DeletedCheckIn deleted) {
+        return DeletedCheckInResponse.builder()
+                .habitId(deleted.getHabitId())
+                .checkInDate(deleted.getCheckInDate())
+                .deletedAt(deleted.getDeletedAt())
+                .build();
+    }
+}
@@ -38,6 +38,7 @@ public class GoalResponse {
     private LocalDateTime completedAt;
 
     // Status
+    private Boolean active;
     private Boolean completed;
     private Boolean overdue;
     private Integer daysRemaining;
@@ -46,6 +47,8 @@ public class GoalResponse {
     private Long linkedHabitId;
     private String linkedHabitName;
 
+    private LocalDateTime updatedAt;
+
     /**
      * Factory method
      */
@@ -70,11 +73,13 @@ public class GoalResponse {
                 .startDate(goal.getStartDate())
                 .deadline(goal.getDeadline())
                 .completedAt(goal.getCompletedAt())
+                .active(goal.getActive())
                 .completed(goal.getCompleted())
                 .overdue(goal.isOverdue())
                 .daysRemaining(daysRemaining)
                 .linkedHabitId(goal.getLinkedHabit() != null ? goal.getLinkedHabit().getId() : null)
                 .linkedHabitName(goal.getLinkedHabit() != null ? goal.getLinkedHabit().getName() : null)
+                .updatedAt(goal.getUpdatedAt())
                 .build();
     }
 }
@@ -33,8 +33,12 @@ public class HabitResponse {
     // Is today checked in?
     private Boolean checkedInToday;
 
+    // Is the habit still active? (false = archived)
+    private Boolean active;
+
     // Timestamps
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
     /**
      * FACTORY METHOD: Entity → DTO conversion
@@ -52,7 +56,9 @@ public class HabitResponse {
                 .totalCheckIns(habit.getTotalCheckIns())
                 .lastCheckInDate(habit.getLastCheckInDate())
                 .checkedInToday(checkedInToday)
+                .active(habit.getActive())
                 .createdAt(habit.getCreatedAt())
+                .updatedAt(habit.getUpdatedAt())
                 .build();
     }
 }
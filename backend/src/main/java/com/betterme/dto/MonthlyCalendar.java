@@ -48,7 +48,11 @@ public class MonthlyCalendar {
         private Long habitId;
         private String habitName;
         private String icon;
-        private Set<LocalDate> checkedDates;
+        /**
+         * Checked days as a bit mask: bit (day - 1) is set if checked in,
+         * e.g. days 1 and 3 → 0b101 = 5
+         */
+        private int checkedDays;
         private int checkInCount;
         private int currentStreak;
     }
@@ -0,0 +1,38 @@
+package com.betterme.dto;
+
+import com.betterme.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for notifications (no user entity)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+
+    private Long id;
+    private String message;
+    private Notification.NotificationType type;
+    private boolean read;
+    private LocalDateTime createdAt;
+
+    /**
+     * Factory method
+     */
+    public static NotificationResponse fromEntity(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .message(notification.getMessage())
+                .type(notification.getType())
+                .read(notification.isRead())
+                .createdAt(notification.getCreatedAt())
+                .build();
+    }
+}
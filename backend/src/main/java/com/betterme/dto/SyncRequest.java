@@ -0,0 +1,47 @@
+package com.betterme.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Delta sync request: the client's cursor plus check-ins queued offline
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncRequest {
+
+    /**
+     * Cursor from the previous sync (null = first sync)
+     */
+    private Long since;
+
+    @Size(max = 500, message = "At most 500 offline check-ins per sync")
+    @Valid
+    private List<OfflineCheckIn> checkIns;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OfflineCheckIn {
+
+        @NotNull(message = "Habit id is required")
+        private Long habitId;
+
+        @NotNull(message = "Date is required")
+        private LocalDate date;
+
+        @Size(max = 500, message = "Notes too long")
+        private String notes;
+    }
+}
@@ -0,0 +1,46 @@
+package com.betterme.dto;
+
+import com.betterme.repository.HabitCheckInRepository;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything that changed since the client's cursor
+ *
+ * Clients apply deletedCheckIns first, then upsert everything else by id,
+ * and send cursor back as "since" next time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    /**
+     * Opaque change watermark, send back as "since"
+     */
+    private long cursor;
+
+    /**
+     * true = no/expired cursor: lists are complete (whole check-in history,
+     * archived habits and goals, all notifications), drop local state first
+     */
+    private boolean fullResync;
+
+    // Changed entities (archived habits/goals have active = false)
+    private List<HabitResponse> habits;
+    private List<HabitCheckInRepository.CheckInChange> checkIns;
+    private List<DeletedCheckInResponse> deletedCheckIns;
+    private List<GoalResponse> goals;
+    private List<NotificationResponse> notifications;
+    private long unreadNotifications;
+
+    /**
+     * Results of the uploaded offline check-ins, in upload order
+     */
+    private List<BatchCheckInResponse.Result> uploaded;
+}
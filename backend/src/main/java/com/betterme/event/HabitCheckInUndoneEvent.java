@@ -0,0 +1,15 @@
+package com.betterme.event;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * A check-in was removed from a habit (undo)
+ */
+@Value
+public class HabitCheckInUndoneEvent {
+    Long userId;
+    Long habitId;
+    LocalDate date;
+}
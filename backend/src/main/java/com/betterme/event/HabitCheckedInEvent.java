@@ -0,0 +1,19 @@
+package com.betterme.event;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * A new check-in was stored for a habit.
+ * Published inside the check-in transaction; listeners that must only see
+ * committed check-ins write to the same transaction (an outbox) or use
+ * @TransactionalEventListener.
+ */
+@Value
+public class HabitCheckedInEvent {
+    Long userId;
+    Long habitId;
+    LocalDate date;
+    Integer currentStreak; // null = the check-in did not touch the current streak
+}
@@ -0,0 +1,55 @@
+package com.betterme.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Daily rollup of a user's activity: one row per user per day.
+ * Maintained on every check-in (and rebuildable from habit_checkins),
+ * so analytics read one small row per day instead of raw check-ins.
+ */
+@Entity
+@Table(name = "daily_activity",
+        // One rollup row per user per day
+        uniqueConstraints = @UniqueConstraint(columnNames = { "user_id",
+                "activity_date" }, name = "uk_daily_activity_user_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyActivity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    /**
+     * Check-ins made for this day
+     */
+    @Column(name = "checkin_count", nullable = false)
+    @Builder.Default
+    private Integer checkInCount = 0;
+
+    /**
+     * Active habits the user had on this day
+     */
+    @Column(name = "active_habit_count", nullable = false)
+    @Builder.Default
+    private Integer activeHabitCount = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
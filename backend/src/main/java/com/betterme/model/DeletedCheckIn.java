@@ -0,0 +1,52 @@
+package com.betterme.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone for an undone check-in.
+ * Check-ins are hard-deleted on undo, so delta sync needs this row to tell
+ * offline clients to drop their copy. Purged after the sync retention window.
+ */
+@Entity
+@Table(name = "deleted_checkins",
+        indexes = @Index(name = "idx_deleted_checkins_user_deleted", columnList = "user_id, deleted_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedCheckIn {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "habit_id", nullable = false)
+    private Long habitId;
+
+    @Column(name = "checkin_date", nullable = false)
+    private LocalDate checkInDate;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    /**
+     * Transaction that last wrote this row (delta sync cursor, set by a database trigger)
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
+    @PrePersist
+    protected void onCreate() {
+        this.deletedAt = LocalDateTime.now();
+    }
+}
@@ -107,6 +107,12 @@ public class Goal {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Transaction that last wrote this row (delta sync cursor, set by a database trigger)
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -92,6 +92,12 @@ public class Habit {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Transaction that last wrote this row (delta sync cursor, set by a database trigger)
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     /**
      * Is this habit still active or archived?
      */
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 /**
  */
 @Entity
+// Range-partitioned by month on checkin_date (V4 migration, CheckInPartitionService)
 @Table(name = "habit_checkins",
         // Unique constraint: One check-in per habit per day
         uniqueConstraints = @UniqueConstraint(columnNames = { "habit_id",
@@ -33,6 +34,14 @@ public class HabitCheckIn {
     @JoinColumn(name = "habit_id", nullable = false)
     private Habit habit;
 
+    /**
+     * Owner of the habit, copied onto every check-in
+     * so user-level queries don't need the user's habit ids
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
     /**
      * Which date was this check-in for?
      * Using LocalDate (date only, no time)
@@ -59,6 +68,12 @@ public class HabitCheckIn {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    /**
+     * Transaction that last wrote this row (delta sync cursor, set by a database trigger)
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,46 @@
+package com.betterme.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One habit's check-in history for one year, stored as a bitmap.
+ *
+ * Bit n (n = day-of-year - 1) is set when the habit was checked in that
+ * day: 366 bits = 46 bytes per habit per year, maintained alongside
+ * habit_checkins. Bit order matches PostgreSQL set_bit/get_bit on bytea
+ * and java.util.BitSet.valueOf(byte[]) (byte n/8, bit n%8).
+ */
+@Entity
+@Table(name = "habit_year_bitmaps",
+        // One bitmap per habit per year
+        uniqueConstraints = @UniqueConstraint(columnNames = { "habit_id",
+                "bitmap_year" }, name = "uk_habit_bitmap_year"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HabitYearBitmap {
+
+    /**
+     * Bytes needed for 366 days
+     */
+    public static final int BYTES_PER_YEAR = 46;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "habit_id", nullable = false)
+    private Habit habit;
+
+    @Column(name = "bitmap_year", nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private byte[] bits;
+}
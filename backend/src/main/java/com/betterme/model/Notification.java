@@ -41,6 +41,12 @@ public class Notification {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    /**
+     * Transaction that last wrote this row (delta sync cursor, set by a database trigger)
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
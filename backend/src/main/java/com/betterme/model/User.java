@@ -96,6 +96,13 @@ public class User implements UserDetails {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Access tokens issued before this time are rejected (password change / reset)
+     * Only written by UserRepository.setTokensValidAfter, never by entity saves
+     */
+    @Column(name = "tokens_valid_after", insertable = false, updatable = false)
+    private LocalDateTime tokensValidAfter;
+
     /**
      * JPA LIFECYCLE CALLBACKS
      * 
@@ -21,7 +21,8 @@ public class VerificationToken {
 
     public enum TokenType {
         EMAIL_VERIFICATION,
-        PASSWORD_RESET
+        PASSWORD_RESET,
+        REFRESH // token = SHA-256 of the refresh token
     }
 
     @Id
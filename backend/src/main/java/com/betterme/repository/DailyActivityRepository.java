@@ -0,0 +1,129 @@
+package com.betterme.repository;
+
+import com.betterme.model.DailyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-user, per-day rollup (see DailyActivity)
+ * Writes are native upserts so concurrent check-ins never lose an increment.
+ * checkin_count only counts check-ins of active habits: archiving a habit
+ * takes its check-ins out of every day.
+ */
+@Repository
+public interface DailyActivityRepository extends JpaRepository<DailyActivity, Long> {
+
+    /**
+     * Rollup rows for a user within a date range (projection, oldest first)
+     */
+    @Query("SELECT d.activityDate AS activityDate, d.checkInCount AS checkInCount, "
+            + "d.activeHabitCount AS activeHabitCount FROM DailyActivity d "
+            + "WHERE d.user.id = ?1 AND d.activityDate BETWEEN ?2 AND ?3 ORDER BY d.activityDate")
+    List<DayActivity> findDays(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Add delta check-ins of active habits to a user's day, creating the row if needed
+     * A new row snapshots the user's current number of active habits. A day
+     * never has fewer active habits than checked ones: a backdated check-in
+     * of a habit created later counts that habit as active on that day.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO daily_activity (user_id, activity_date, checkin_count, active_habit_count, updated_at)
+            VALUES (?1, ?2, ?3,
+                    (SELECT COUNT(*) FROM habits h WHERE h.user_id = ?1 AND h.active = true),
+                    now())
+            ON CONFLICT (user_id, activity_date)
+            DO UPDATE SET checkin_count = daily_activity.checkin_count + EXCLUDED.checkin_count,
+                          active_habit_count = GREATEST(daily_activity.active_habit_count,
+                                                        daily_activity.checkin_count + EXCLUDED.checkin_count),
+                          updated_at = now()
+            """)
+    int addCheckIns(Long userId, LocalDate date, int delta);
+
+    /**
+     * Same as addCheckIns for one habit's check-in, only while the habit is active
+     * (FOR SHARE: waits for a concurrent archive, which then sees this check-in)
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO daily_activity (user_id, activity_date, checkin_count, active_habit_count, updated_at)
+            SELECT ?1, ?3, ?4,
+                   (SELECT COUNT(*) FROM habits a WHERE a.user_id = ?1 AND a.active = true),
+                   now()
+            FROM habits h WHERE h.id = ?2 AND h.user_id = ?1 AND h.active = true
+            FOR SHARE
+            ON CONFLICT (user_id, activity_date)
+            DO UPDATE SET checkin_count = daily_activity.checkin_count + EXCLUDED.checkin_count,
+                          active_habit_count = GREATEST(daily_activity.active_habit_count,
+                                                        daily_activity.checkin_count + EXCLUDED.checkin_count),
+                          updated_at = now()
+            """)
+    int addHabitCheckIns(Long userId, Long habitId, LocalDate date, int delta);
+
+    /**
+     * A habit was archived: take its check-ins out of every day
+     * (one check-in per habit per day, so each matching row loses one)
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE daily_activity d
+            SET checkin_count = GREATEST(d.checkin_count - 1, 0),
+                updated_at = now()
+            FROM habit_checkins c
+            WHERE c.habit_id = ?2 AND d.user_id = ?1 AND d.activity_date = c.checkin_date
+            """)
+    int removeHabitCheckIns(Long userId, Long habitId);
+
+    /**
+     * Re-snapshot the active habit count on a day (after a habit is created or archived)
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE daily_activity
+            SET active_habit_count = (SELECT COUNT(*) FROM habits h WHERE h.user_id = ?1 AND h.active = true),
+                updated_at = now()
+            WHERE user_id = ?1 AND activity_date = ?2
+            """)
+    int refreshActiveHabitCount(Long userId, LocalDate date);
+
+    /**
+     * Backfill: drop the whole rollup...
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM daily_activity")
+    int deleteAllRows();
+
+    /**
+     * ...and rebuild it from the active habits' check-ins in one set-based statement.
+     * History does not record when habits were archived, so the rebuilt
+     * active_habit_count is the user's current number of active habits.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO daily_activity (user_id, activity_date, checkin_count, active_habit_count, updated_at)
+            SELECT c.user_id, c.checkin_date, COUNT(*),
+                   (SELECT COUNT(*) FROM habits a WHERE a.user_id = c.user_id AND a.active = true),
+                   now()
+            FROM habit_checkins c
+            JOIN habits h ON h.id = c.habit_id AND h.active = true
+            GROUP BY c.user_id, c.checkin_date
+            """)
+    int rebuildFromCheckIns();
+
+    /**
+     * Projection: one rollup day
+     */
+    interface DayActivity {
+        LocalDate getActivityDate();
+
+        Integer getCheckInCount();
+
+        Integer getActiveHabitCount();
+    }
+}
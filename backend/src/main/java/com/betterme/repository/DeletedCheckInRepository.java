@@ -0,0 +1,60 @@
+package com.betterme.repository;
+
+import com.betterme.model.DeletedCheckIn;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tombstones of undone check-ins, plus the delta sync bookkeeping
+ * (cursor watermark and purge horizon, see SyncService)
+ */
+@Repository
+public interface DeletedCheckInRepository extends JpaRepository<DeletedCheckIn, Long> {
+
+    /**
+     * Check-ins a user undid since the sync cursor (delta sync)
+     */
+    List<DeletedCheckIn> findByUserIdAndChangeSeqGreaterThanEqualOrderByChangeSeq(Long userId, long since);
+
+    /**
+     * Cursor for a sync starting now: xmin of the current snapshot, i.e.
+     * the oldest transaction that may still commit rows
+     */
+    @Query(nativeQuery = true, value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)")
+    long currentChangeWatermark();
+
+    /**
+     * Highest change_seq of a purged tombstone (0 if none were purged)
+     */
+    @Query(nativeQuery = true, value = "SELECT COALESCE(MAX(purged_through), 0) FROM sync_purge_horizon")
+    long purgeHorizon();
+
+    /**
+     * Highest change_seq among tombstones older than the cutoff (null if none)
+     */
+    @Query("SELECT MAX(d.changeSeq) FROM DeletedCheckIn d WHERE d.deletedAt < ?1")
+    Long maxChangeSeqBefore(LocalDateTime cutoff);
+
+    /**
+     * Raise the purge horizon (never lowers it)
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO sync_purge_horizon (id, purged_through) VALUES (1, ?1)
+            ON CONFLICT (id) DO UPDATE
+            SET purged_through = GREATEST(sync_purge_horizon.purged_through, EXCLUDED.purged_through)
+            """)
+    int raisePurgeHorizon(long purgedThrough);
+
+    /**
+     * Purge tombstones older than the sync retention window
+     */
+    @Modifying
+    @Query("DELETE FROM DeletedCheckIn d WHERE d.deletedAt < ?1")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
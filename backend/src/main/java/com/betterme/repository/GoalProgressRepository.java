@@ -0,0 +1,110 @@
+package com.betterme.repository;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Atomic progress updates on goals, and the outbox of check-in changes
+ * that feeds linked goals (fragment of GoalRepository)
+ */
+public interface GoalProgressRepository {
+
+    /**
+     * Add to one goal's progress in ONE conditional UPDATE (never below 0).
+     * The row is locked and the new value computed from its latest version,
+     * so concurrent increments never overwrite each other. A goal reaching
+     * its target is completed in the same statement.
+     *
+     * @return the new progress, empty if the goal does not exist or is not the user's
+     */
+    Optional<ProgressUpdate> incrementProgress(Long goalId, Long userId, int increment);
+
+    /**
+     * Same as incrementProgress, setting the progress to a value
+     */
+    Optional<ProgressUpdate> setProgress(Long goalId, Long userId, int value);
+
+    /**
+     * Advance every active, unfinished goal linked to these habits in ONE
+     * UPDATE statement. COUNT and HABIT_LINK goals add the check-in delta
+     * (never below 0), STREAK goals keep the best streak seen. Goals that
+     * reach their target are marked completed in the same statement.
+     *
+     * @return the goals this update completed
+     */
+    List<CompletedGoal> applyLinkedHabitProgress(List<LinkedHabitProgress> updates);
+
+    // OUTBOX (goal_progress_outbox)
+
+    /**
+     * Store check-in changes for linked goals, in ONE insert (joins the caller's transaction)
+     */
+    void recordLinkedHabitChanges(List<LinkedHabitChange> changes);
+
+    /**
+     * Take up to limit pending changes out of the outbox (deleted, so they
+     * only count if the caller's transaction commits). Rows locked by another
+     * flush are skipped, parked rows (attempts >= maxAttempts) are left alone.
+     */
+    List<LinkedHabitChange> claimLinkedHabitChanges(int limit, int maxAttempts);
+
+    /**
+     * Same as claimLinkedHabitChanges for one change
+     */
+    List<LinkedHabitChange> claimLinkedHabitChange(Long id, int maxAttempts);
+
+    /**
+     * Count a failed attempt on a change
+     *
+     * @return attempts so far
+     */
+    int recordLinkedHabitChangeFailure(Long id, String error);
+
+    /**
+     * Changes waiting to be applied
+     */
+    int countPendingLinkedHabitChanges(int maxAttempts);
+
+    /**
+     * Goal progress after an update
+     */
+    @Value
+    class ProgressUpdate {
+        int currentValue;
+        boolean completed;
+        boolean justCompleted; // This update reached the target
+    }
+
+    /**
+     * Check-in changes of one habit since the last update
+     */
+    @Value
+    class LinkedHabitProgress {
+        Long habitId;
+        int checkIns;   // New check-ins minus undone ones
+        Integer streak; // Best current streak seen, null = unknown
+    }
+
+    /**
+     * One check-in (+1) or undo (-1) of a habit, as stored in the outbox
+     */
+    @Value
+    class LinkedHabitChange {
+        Long id;        // null until stored
+        Long habitId;
+        int delta;
+        Integer streak; // Current streak after a check-in, null = unknown
+    }
+
+    /**
+     * A goal that just reached its target
+     */
+    @Value
+    class CompletedGoal {
+        Long id;
+        Long userId;
+        String title;
+    }
+}
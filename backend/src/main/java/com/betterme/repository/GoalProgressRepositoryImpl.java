@@ -0,0 +1,159 @@
+package com.betterme.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ */
+@RequiredArgsConstructor
+public class GoalProgressRepositoryImpl implements GoalProgressRepository {
+
+    // New current_value, computed from the row being updated (not a prior read)
+    private static final String NEW_VALUE = """
+            CASE WHEN g.type = 'STREAK'
+                 THEN GREATEST(COALESCE(g.current_value, 0), COALESCE(v.streak, 0))
+                 ELSE GREATEST(COALESCE(g.current_value, 0) + v.check_ins, 0) END""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<ProgressUpdate> incrementProgress(Long goalId, Long userId, int increment) {
+        return applyProgress("COALESCE(current_value, 0) + ?", increment, goalId, userId);
+    }
+
+    @Override
+    public Optional<ProgressUpdate> setProgress(Long goalId, Long userId, int value) {
+        return applyProgress("?", value, goalId, userId);
+    }
+
+    /**
+     * FOR UPDATE makes the subquery wait for concurrent updates and read the
+     * row version they committed, so the new value is never computed from a
+     * stale read (and was_completed is exact).
+     */
+    private Optional<ProgressUpdate> applyProgress(String newValue, int arg, Long goalId, Long userId) {
+        String sql = """
+                UPDATE goals g
+                SET current_value = p.new_value,
+                    completed = p.was_completed OR p.new_value >= g.target_value,
+                    completed_at = CASE WHEN NOT p.was_completed AND p.new_value >= g.target_value
+                                        THEN now() ELSE g.completed_at END,
+                    updated_at = now()
+                FROM (SELECT id, COALESCE(completed, false) AS was_completed, GREATEST(%s, 0) AS new_value
+                      FROM goals
+                      WHERE id = ? AND user_id = ?
+                      FOR UPDATE) AS p
+                WHERE g.id = p.id
+                RETURNING g.current_value, g.completed, p.was_completed
+                """.formatted(newValue);
+
+        List<ProgressUpdate> rows = jdbcTemplate.query(sql, (rs, i) -> new ProgressUpdate(
+                rs.getInt("current_value"),
+                rs.getBoolean("completed"),
+                rs.getBoolean("completed") && !rs.getBoolean("was_completed")),
+                arg, goalId, userId);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<CompletedGoal> applyLinkedHabitProgress(List<LinkedHabitProgress> updates) {
+        if (updates.isEmpty()) {
+            return List.of();
+        }
+
+        String values = String.join(", ", Collections.nCopies(updates.size(), "(?::bigint, ?::int, ?::int)"));
+        String sql = """
+                UPDATE goals g
+                SET current_value = %1$s,
+                    completed = (%1$s) >= g.target_value,
+                    completed_at = CASE WHEN (%1$s) >= g.target_value THEN now() ELSE g.completed_at END,
+                    updated_at = now()
+                FROM (VALUES %2$s) AS v(habit_id, check_ins, streak)
+                WHERE g.linked_habit_id = v.habit_id
+                  AND g.active AND NOT g.completed
+                  AND g.type IN ('COUNT', 'HABIT_LINK', 'STREAK')
+                RETURNING g.id, g.user_id, g.title, g.completed
+                """.formatted(NEW_VALUE, values);
+
+        List<Object> args = new ArrayList<>(updates.size() * 3);
+        for (LinkedHabitProgress update : updates) {
+            args.add(update.getHabitId());
+            args.add(update.getCheckIns());
+            args.add(update.getStreak());
+        }
+
+        List<CompletedGoal> completed = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            if (rs.getBoolean("completed")) {
+                completed.add(new CompletedGoal(rs.getLong("id"), rs.getLong("user_id"), rs.getString("title")));
+            }
+        }, args.toArray());
+        return completed;
+    }
+
+    @Override
+    public void recordLinkedHabitChanges(List<LinkedHabitChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        String values = String.join(", ", Collections.nCopies(changes.size(), "(?, ?, ?)"));
+        List<Object> args = new ArrayList<>(changes.size() * 3);
+        for (LinkedHabitChange change : changes) {
+            args.add(change.getHabitId());
+            args.add(change.getDelta());
+            args.add(change.getStreak());
+        }
+        jdbcTemplate.update("INSERT INTO goal_progress_outbox (habit_id, delta, streak) VALUES " + values,
+                args.toArray());
+    }
+
+    @Override
+    public List<LinkedHabitChange> claimLinkedHabitChanges(int limit, int maxAttempts) {
+        return claim("attempts < ? ORDER BY id LIMIT ?", maxAttempts, limit);
+    }
+
+    @Override
+    public List<LinkedHabitChange> claimLinkedHabitChange(Long id, int maxAttempts) {
+        return claim("id = ? AND attempts < ?", id, maxAttempts);
+    }
+
+    /**
+     * SKIP LOCKED: concurrent flushes (other instances) take disjoint rows
+     */
+    private List<LinkedHabitChange> claim(String condition, Object... args) {
+        String sql = """
+                DELETE FROM goal_progress_outbox
+                WHERE id IN (SELECT id FROM goal_progress_outbox WHERE %s FOR UPDATE SKIP LOCKED)
+                RETURNING id, habit_id, delta, streak
+                """.formatted(condition);
+        return jdbcTemplate.query(sql, (rs, i) -> new LinkedHabitChange(
+                rs.getLong("id"),
+                rs.getLong("habit_id"),
+                rs.getInt("delta"),
+                (Integer) rs.getObject("streak")),
+                args);
+    }
+
+    @Override
+    public int recordLinkedHabitChangeFailure(Long id, String error) {
+        List<Integer> attempts = jdbcTemplate.queryForList("""
+                UPDATE goal_progress_outbox SET attempts = attempts + 1, last_error = left(?, 500)
+                WHERE id = ?
+                RETURNING attempts
+                """, Integer.class, error, id);
+        return attempts.isEmpty() ? 0 : attempts.get(0);
+    }
+
+    @Override
+    public int countPendingLinkedHabitChanges(int maxAttempts) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM goal_progress_outbox WHERE attempts < ?", Integer.class, maxAttempts);
+        return count != null ? count : 0;
+    }
+}
@@ -13,7 +13,7 @@ import java.util.Optional;
 /**
  */
 @Repository
-public interface GoalRepository extends JpaRepository<Goal, Long> {
+public interface GoalRepository extends JpaRepository<Goal, Long>, GoalProgressRepository {
 
     /**
      * Find all goals for a user (most recent first)
@@ -25,6 +25,13 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
      */
     List<Goal> findByUserAndActiveOrderByCreatedAtDesc(User user, Boolean active);
 
+    /**
+     * Goals changed since the sync cursor, archived ones included (delta sync)
+     * Linked habit is fetched in the same query for the response.
+     */
+    @Query("SELECT g FROM Goal g LEFT JOIN FETCH g.linkedHabit WHERE g.user = ?1 AND g.changeSeq >= ?2")
+    List<Goal> findChangedSince(User user, long since);
+
     /**
      * Find a goal ensuring it belongs to the user
      */
@@ -40,6 +47,27 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
      */
     long countByUserAndActiveAndCompleted(User user, Boolean active, Boolean completed);
 
+    /**
+     * Goals page stats in ONE aggregate query
+     * Counts and average progress (percent, capped at 100) of the
+     * unfinished active goals are computed in SQL; no entities are loaded.
+     */
+    @Query("""
+            SELECT COALESCE(SUM(CASE WHEN g.active = true THEN 1 ELSE 0 END), 0) AS totalGoals,
+                   COALESCE(SUM(CASE WHEN g.completed = true THEN 1 ELSE 0 END), 0) AS completedGoals,
+                   COALESCE(SUM(CASE WHEN g.active = true AND g.completed = false THEN 1 ELSE 0 END), 0) AS inProgressGoals,
+                   COALESCE(SUM(CASE WHEN g.active = true AND g.completed = false AND g.deadline <= ?2
+                                     THEN 1 ELSE 0 END), 0) AS upcomingDeadlines,
+                   AVG(CASE WHEN g.active = true AND g.completed = false THEN
+                           CASE WHEN g.targetValue = 0 THEN 0.0
+                                WHEN g.currentValue >= g.targetValue THEN 100.0
+                                ELSE g.currentValue * 100.0 / g.targetValue END
+                       END) AS averageProgress
+            FROM Goal g
+            WHERE g.user = ?1
+            """)
+    GoalStatsTotals getStatsTotals(User user, LocalDate deadlineBefore);
+
     /**
      * Find goals with deadlines coming up
      */
@@ -50,4 +78,19 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
      * Find completed goals
      */
     List<Goal> findByUserAndCompletedOrderByCompletedAtDesc(User user, Boolean completed);
+
+    /**
+     * Projection for getStatsTotals
+     */
+    interface GoalStatsTotals {
+        Long getTotalGoals();
+
+        Long getCompletedGoals();
+
+        Long getInProgressGoals();
+
+        Long getUpcomingDeadlines();
+
+        Double getAverageProgress();
+    }
 }
@@ -0,0 +1,22 @@
+package com.betterme.repository;
+
+import com.betterme.dto.BatchCheckInRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC batch operations on habit_checkins (fragment of HabitCheckInRepository)
+ */
+public interface HabitCheckInBatchRepository {
+
+    /**
+     * Insert one completed check-in per item on the given date in a single
+     * statement. Rows that already exist are skipped (ON CONFLICT DO NOTHING).
+     * Items must be distinct habits of this user (checked by the caller).
+     *
+     * @return ids of the habits whose check-in was inserted
+     */
+    Set<Long> insertCheckIns(Long userId, List<BatchCheckInRequest.Item> items, LocalDate date);
+}
@@ -0,0 +1,48 @@
+package com.betterme.repository;
+
+import com.betterme.dto.BatchCheckInRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batch counts are no use here: with reWriteBatchedInserts every row of a
+ * JDBC batch reports SUCCESS_NO_INFO, inserted or not. RETURNING names the
+ * rows that were actually inserted.
+ */
+@RequiredArgsConstructor
+public class HabitCheckInBatchRepositoryImpl implements HabitCheckInBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<Long> insertCheckIns(Long userId, List<BatchCheckInRequest.Item> items, LocalDate date) {
+        if (items.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        String sql = """
+                INSERT INTO habit_checkins (habit_id, user_id, checkin_date, completed, notes, created_at)
+                VALUES %s
+                ON CONFLICT (habit_id, checkin_date) DO NOTHING
+                RETURNING habit_id
+                """.formatted(String.join(", ", Collections.nCopies(items.size(), "(?, ?, ?, true, ?, now())")));
+
+        Date checkInDate = Date.valueOf(date);
+        List<Object> args = new ArrayList<>(items.size() * 4);
+        for (BatchCheckInRequest.Item item : items) {
+            args.add(item.getHabitId());
+            args.add(userId);
+            args.add(checkInDate);
+            args.add(item.getNotes());
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, args.toArray()));
+    }
+}
@@ -2,18 +2,23 @@ package com.betterme.repository;
 
 import com.betterme.model.Habit;
 import com.betterme.model.HabitCheckIn;
+import com.betterme.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  */
 @Repository
-public interface HabitCheckInRepository extends JpaRepository<HabitCheckIn, Long> {
+public interface HabitCheckInRepository extends JpaRepository<HabitCheckIn, Long>, HabitCheckInBatchRepository {
 
     /**
      * Find check-in for a specific date
@@ -26,6 +31,46 @@ public interface HabitCheckInRepository extends JpaRepository<HabitCheckIn, Long
      */
     boolean existsByHabitAndCheckInDate(Habit habit, LocalDate date);
 
+    /**
+     * Atomic insert-if-absent of a completed check-in
+     * Only inserts when the habit belongs to the user; returns 0 when the habit
+     * is not theirs or is already checked in on that date (no exception).
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO habit_checkins (habit_id, user_id, checkin_date, completed, notes, created_at)
+            SELECT h.id, h.user_id, ?3, true, CAST(?4 AS varchar), now()
+            FROM habits h WHERE h.id = ?1 AND h.user_id = ?2
+            ON CONFLICT (habit_id, checkin_date) DO NOTHING
+            """)
+    int insertIfAbsent(Long habitId, Long userId, LocalDate date, String notes);
+
+    /**
+     * Check-ins of a user written since the sync cursor (0 = whole history)
+     */
+    @Query("""
+            SELECT c.id AS id, c.habit.id AS habitId, c.checkInDate AS checkInDate,
+                   c.completed AS completed, c.notes AS notes, c.createdAt AS createdAt
+            FROM HabitCheckIn c
+            WHERE c.user = ?1 AND c.changeSeq >= ?2
+            ORDER BY c.changeSeq, c.id
+            """)
+    List<CheckInChange> findChangedSince(User user, long since);
+
+    /**
+     * Remove the check-in for this habit on this date (undo)
+     */
+    @Modifying
+    @Query("DELETE FROM HabitCheckIn c WHERE c.habit = ?1 AND c.checkInDate = ?2")
+    int deleteByHabitAndCheckInDate(Habit habit, LocalDate date);
+
+    /**
+     * Which of the user's habits have a check-in on this date?
+     * Seeks on (user_id, checkin_date), no habit id list needed
+     */
+    @Query("SELECT c.habit.id FROM HabitCheckIn c WHERE c.user = ?1 AND c.checkInDate = ?2")
+    List<Long> findCheckedInHabitIdsByUser(User user, LocalDate date);
+
     /**
      * Get check-in history for a habit within a date range
      * Useful for calendar view!
@@ -49,23 +94,85 @@ public interface HabitCheckInRepository extends JpaRepository<HabitCheckIn, Long
     long countByHabitAndCompleted(Habit habit, Boolean completed);
 
     /**
-     * Get check-ins for the last N days
+     * One page of a habit's history, newest first (keyset pagination)
      * 
-     * ?1 = first parameter (habit)
-     * ?2 = second parameter (startDate)
+     * ?2 = cursor: only days before it
+     * ?3 = oldest day to include
+     * Seeks on the (habit_id, checkin_date) unique index, no OFFSET scan.
      */
-    @Query("SELECT c FROM HabitCheckIn c WHERE c.habit = ?1 AND c.checkInDate >= ?2 ORDER BY c.checkInDate DESC")
-    List<HabitCheckIn> findRecentCheckIns(Habit habit, LocalDate startDate);
+    @Query("""
+            SELECT c.checkInDate AS checkInDate, c.completed AS completed, c.notes AS notes
+            FROM HabitCheckIn c
+            WHERE c.habit = ?1 AND c.checkInDate < ?2 AND c.checkInDate >= ?3
+            ORDER BY c.checkInDate DESC
+            """)
+    List<HistoryEntry> findHistoryPage(Habit habit, LocalDate before, LocalDate from, Pageable page);
 
     /**
-     * Get check-ins for multiple habits within a date range (for analytics)
+     * Every (habit id, date) pair of these habits, no entities
+     * Used to rebuild the check-in bitmaps
      */
-    @Query("SELECT c FROM HabitCheckIn c WHERE c.habit.id IN ?1 AND c.checkInDate BETWEEN ?2 AND ?3")
-    List<HabitCheckIn> findByHabitIdInAndCheckInDateBetween(List<Long> habitIds, LocalDate startDate,
-            LocalDate endDate);
+    @Query("SELECT c.habit.id AS habitId, c.checkInDate AS checkInDate FROM HabitCheckIn c WHERE c.habit.id IN ?1")
+    List<HabitDay> findHabitDays(Collection<Long> habitIds);
 
     /**
      * Count check-ins after a date (for analytics)
      */
     long countByHabitAndCheckInDateAfter(Habit habit, LocalDate date);
+
+    /**
+     * Check-in counts after a date for ALL of a user's active habits, grouped by habit
+     * completed = null counts every check-in, true/false filters on c.completed
+     */
+    @Query("SELECT c.habit.id AS habitId, COUNT(c) AS checkIns FROM HabitCheckIn c "
+            + "WHERE c.user = ?1 AND c.habit.active = true AND c.checkInDate > ?2 "
+            + "AND (?3 IS NULL OR c.completed = ?3) "
+            + "GROUP BY c.habit.id")
+    List<HabitCount> countPerHabitAfter(User user, LocalDate date, Boolean completed);
+
+    /**
+     * Projection: which habit was checked in on which day
+     */
+    interface HabitDay {
+        Long getHabitId();
+
+        LocalDate getCheckInDate();
+    }
+
+    /**
+     * Projection: number of check-ins per habit
+     */
+    interface HabitCount {
+        Long getHabitId();
+
+        Long getCheckIns();
+    }
+
+    /**
+     * Projection for delta sync (no habit entity)
+     */
+    interface CheckInChange {
+        Long getId();
+
+        Long getHabitId();
+
+        LocalDate getCheckInDate();
+
+        Boolean getCompleted();
+
+        String getNotes();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Projection for the history API (no habit proxy)
+     */
+    interface HistoryEntry {
+        LocalDate getCheckInDate();
+
+        Boolean getCompleted();
+
+        String getNotes();
+    }
 }
@@ -0,0 +1,36 @@
+package com.betterme.repository;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Bulk counter updates on habits (fragment of HabitRepository)
+ */
+public interface HabitCounterRepository {
+
+    /**
+     * Apply new check-ins to several habits in ONE UPDATE statement:
+     * totalCheckIns + 1, longestStreak = max(longest, run), current streak
+     * and last check-in time when given.
+     */
+    int applyCheckIns(List<CheckInCounters> updates);
+
+    /**
+     * Apply an undone check-in in ONE UPDATE statement:
+     * totalCheckIns - 1 (never below 0), streaks when given (null = unchanged).
+     * Never read-modify-write, so a concurrent check-in is not lost.
+     */
+    int applyUndo(Long habitId, Long userId, Integer currentStreak, Integer longestStreak);
+
+    /**
+     * New values for one habit after a check-in
+     */
+    @Value
+    class CheckInCounters {
+        Long habitId;
+        int run;               // Run of checked days through the new check-in
+        Integer currentStreak; // null = unchanged
+        boolean today;         // Also set last_checkin_date
+    }
+}
@@ -0,0 +1,56 @@
+package com.betterme.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ */
+@RequiredArgsConstructor
+public class HabitCounterRepositoryImpl implements HabitCounterRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int applyCheckIns(List<CheckInCounters> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+
+        String values = String.join(", ", Collections.nCopies(updates.size(), "(?::bigint, ?::int, ?::int, ?::boolean)"));
+        String sql = """
+                UPDATE habits h
+                SET total_checkins = h.total_checkins + 1,
+                    longest_streak = GREATEST(h.longest_streak, v.run),
+                    current_streak = COALESCE(v.current_streak, h.current_streak),
+                    last_checkin_date = CASE WHEN v.today THEN now() ELSE h.last_checkin_date END,
+                    updated_at = now()
+                FROM (VALUES %s) AS v(id, run, current_streak, today)
+                WHERE h.id = v.id
+                """.formatted(values);
+
+        List<Object> args = new ArrayList<>(updates.size() * 4);
+        for (CheckInCounters update : updates) {
+            args.add(update.getHabitId());
+            args.add(update.getRun());
+            args.add(update.getCurrentStreak());
+            args.add(update.isToday());
+        }
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    @Override
+    public int applyUndo(Long habitId, Long userId, Integer currentStreak, Integer longestStreak) {
+        return jdbcTemplate.update("""
+                UPDATE habits
+                SET total_checkins = GREATEST(total_checkins - 1, 0),
+                    current_streak = COALESCE(?::int, current_streak),
+                    longest_streak = COALESCE(?::int, longest_streak),
+                    updated_at = now()
+                WHERE id = ? AND user_id = ?
+                """, currentStreak, longestStreak, habitId, userId);
+    }
+}
@@ -3,16 +3,21 @@ package com.betterme.repository;
 import com.betterme.model.Habit;
 import com.betterme.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  */
 @Repository
-public interface HabitRepository extends JpaRepository<Habit, Long> {
+public interface HabitRepository extends JpaRepository<Habit, Long>, HabitCounterRepository {
 
     /**
      * Find all habits for a specific user
@@ -30,6 +35,21 @@ public interface HabitRepository extends JpaRepository<Habit, Long> {
      */
     Optional<Habit> findByIdAndUser(Long id, User user);
 
+    /**
+     * Habits changed since the sync cursor, archived ones included (delta sync)
+     */
+    List<Habit> findByUserAndChangeSeqGreaterThanEqual(User user, long since);
+
+    /**
+     * Ownership check for many habits in one query (streaks only, no entities)
+     */
+    List<HabitStreaks> findStreaksByIdInAndUserAndActive(Collection<Long> ids, User user, Boolean active);
+
+    /**
+     * Ownership check for one habit, streaks only (undo)
+     */
+    Optional<HabitStreaks> findStreaksByIdAndUser(Long id, User user);
+
     /**
      * Count user's habits (for stats)
      */
@@ -47,4 +67,102 @@ public interface HabitRepository extends JpaRepository<Habit, Long> {
      */
     @Query("SELECT h FROM Habit h WHERE h.user = ?1 ORDER BY h.currentStreak DESC")
     List<Habit> findTopStreaksByUser(User user);
+
+    /**
+     * Dashboard totals in ONE round trip
+     * Habit counts and streak sums come from the habits table, today's
+     * completions and active goals from correlated subqueries.
+     * Returns a projection, no entities are loaded.
+     */
+    @Query("""
+            SELECT COUNT(h) AS totalHabits,
+                   COALESCE(SUM(CASE WHEN h.active = true THEN 1 ELSE 0 END), 0) AS activeHabits,
+                   COALESCE(SUM(CASE WHEN h.active = true THEN h.currentStreak ELSE 0 END), 0) AS currentStreakTotal,
+                   COALESCE(SUM(CASE WHEN h.active = true THEN h.totalCheckIns ELSE 0 END), 0) AS totalCheckIns,
+                   MIN(CASE WHEN h.active = true THEN h.createdAt END) AS firstCreatedAt,
+                   (SELECT COUNT(c) FROM HabitCheckIn c
+                     WHERE c.user = ?1 AND c.habit.active = true AND c.checkInDate = ?2) AS completedToday,
+                   (SELECT COUNT(g) FROM Goal g
+                     WHERE g.user = ?1 AND g.active = true AND g.completed = false) AS activeGoals
+            FROM Habit h
+            WHERE h.user = ?1
+            """)
+    SummaryTotals getSummaryTotals(User user, LocalDate today);
+
+    /**
+     * The active habit with the best longest-streak (newest wins ties)
+     */
+    Optional<StreakLeader> findFirstByUserAndActiveOrderByLongestStreakDescCreatedAtDesc(User user, Boolean active);
+
+    /**
+     * Lowest / highest user id that still has a running streak
+     * (bounds for the partitioned streak-decay job)
+     */
+    @Query("SELECT MIN(h.user.id) FROM Habit h WHERE h.currentStreak > 0")
+    Long findMinUserIdWithStreak();
+
+    @Query("SELECT MAX(h.user.id) FROM Habit h WHERE h.currentStreak > 0")
+    Long findMaxUserIdWithStreak();
+
+    /**
+     * Next page of habit ids after afterId (keyset paging for backfills)
+     */
+    @Query(nativeQuery = true, value = "SELECT id FROM habits WHERE id > ?1 ORDER BY id LIMIT ?2")
+    List<Long> findIdsAfter(long afterId, int limit);
+
+    /**
+     * Reset broken streaks for users in [fromUserId, toUserId]
+     * A streak is broken when the habit has no check-in on or after lastValidDay
+     * (yesterday). One set-based UPDATE per user-id partition.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE habits h
+            SET current_streak = 0, updated_at = now()
+            WHERE h.user_id BETWEEN ?1 AND ?2
+              AND h.current_streak > 0
+              AND NOT EXISTS (SELECT 1 FROM habit_checkins c
+                              WHERE c.habit_id = h.id AND c.checkin_date >= ?3)
+            """)
+    int resetBrokenStreaks(long fromUserId, long toUserId, LocalDate lastValidDay);
+
+    /**
+     * Projection for getSummaryTotals
+     */
+    interface SummaryTotals {
+        Long getTotalHabits();
+
+        Long getActiveHabits();
+
+        Long getCurrentStreakTotal();
+
+        Long getTotalCheckIns();
+
+        LocalDateTime getFirstCreatedAt();
+
+        Long getCompletedToday();
+
+        Long getActiveGoals();
+    }
+
+    /**
+     * Projection for batch check-in and undo (id + stored streaks)
+     */
+    interface HabitStreaks {
+        Long getId();
+
+        Integer getCurrentStreak();
+
+        Integer getLongestStreak();
+    }
+
+    /**
+     * Projection for the best-streak habit (name + streak only)
+     */
+    interface StreakLeader {
+        String getName();
+
+        Integer getLongestStreak();
+    }
 }
@@ -0,0 +1,81 @@
+package com.betterme.repository;
+
+import com.betterme.model.HabitYearBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-habit, per-year check-in bitmaps (see HabitYearBitmap)
+ * Bits are flipped in SQL with set_bit, so concurrent writers never
+ * overwrite each other's days.
+ */
+@Repository
+public interface HabitYearBitmapRepository extends JpaRepository<HabitYearBitmap, Long> {
+
+    /**
+     * All stored years for these habits (projection, no entities)
+     */
+    @Query("SELECT b.habit.id AS habitId, b.year AS year, b.bits AS bits FROM HabitYearBitmap b "
+            + "WHERE b.habit.id IN ?1")
+    List<YearBits> findByHabitIds(Collection<Long> habitIds);
+
+    /**
+     * Set the bit for one day, creating an empty bitmap for the year if needed
+     * 
+     * ?3 = day-of-year - 1
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO habit_year_bitmaps (habit_id, bitmap_year, bits)
+            VALUES (?1, ?2, set_bit(decode(repeat('00', 46), 'hex'), ?3, 1))
+            ON CONFLICT (habit_id, bitmap_year)
+            DO UPDATE SET bits = set_bit(habit_year_bitmaps.bits, ?3, 1)
+            """)
+    int setDay(Long habitId, int year, int dayIndex);
+
+    /**
+     * setDay for several habits on the same day in one statement
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO habit_year_bitmaps (habit_id, bitmap_year, bits)
+            SELECT h.id, ?2, set_bit(decode(repeat('00', 46), 'hex'), ?3, 1)
+            FROM habits h WHERE h.id IN ?1
+            ON CONFLICT (habit_id, bitmap_year)
+            DO UPDATE SET bits = set_bit(habit_year_bitmaps.bits, ?3, 1)
+            """)
+    int setDayForHabits(Collection<Long> habitIds, int year, int dayIndex);
+
+    /**
+     * Clear the bit for one day
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE habit_year_bitmaps SET bits = set_bit(bits, ?3, 0)
+            WHERE habit_id = ?1 AND bitmap_year = ?2
+            """)
+    int clearDay(Long habitId, int year, int dayIndex);
+
+    /**
+     * Backfill: drop the stored bitmaps of these habits before rebuilding them
+     */
+    @Modifying
+    @Query("DELETE FROM HabitYearBitmap b WHERE b.habit.id IN ?1")
+    int deleteByHabitIds(Collection<Long> habitIds);
+
+    /**
+     * Projection: one stored year
+     */
+    interface YearBits {
+        Long getHabitId();
+
+        Integer getYear();
+
+        byte[] getBits();
+    }
+}
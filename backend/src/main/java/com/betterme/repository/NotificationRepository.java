@@ -18,6 +18,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Get only unread notifications
     List<Notification> findByUserAndReadFalseOrderByCreatedAtDesc(User user);
 
+    // Notifications created or marked read since the sync cursor (delta sync)
+    List<Notification> findByUserAndChangeSeqGreaterThanEqualOrderByCreatedAtDesc(User user, long since);
+
     // Count unread notifications
     long countByUserAndReadFalse(User user);
 
@@ -0,0 +1,31 @@
+package com.betterme.repository;
+
+import com.betterme.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Ids of revoked tokens that have not expired yet (Bloom filter rebuild)
+     */
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expiresAt > ?1")
+    List<String> findLiveJtis(LocalDateTime now);
+
+    /**
+     * Purge revocations of tokens that have expired anyway
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -3,8 +3,13 @@ package com.betterme.repository;
 import com.betterme.model.Role;
 import com.betterme.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,4 +35,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Count users by role (for admin stats)
      */
     long countByRole(Role role);
+
+    /**
+     * Replace a password hash (re-hash with a new BCrypt cost on login)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = ?2 WHERE u.id = ?1")
+    int updatePassword(Long id, String encodedPassword);
+
+    /**
+     * End every session of a user: tokens issued before "after" are rejected
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokensValidAfter = ?2 WHERE u.id = ?1")
+    int setTokensValidAfter(Long id, LocalDateTime after);
+
+    /**
+     * Users whose sessions were ended after "since" (tokens older than that have expired anyway)
+     */
+    @Query("SELECT u.id AS id, u.tokensValidAfter AS tokensValidAfter FROM User u WHERE u.tokensValidAfter > ?1")
+    List<TokensValidAfter> findTokensValidAfter(LocalDateTime since);
+
+    /**
+     * Projection for findTokensValidAfter
+     */
+    interface TokensValidAfter {
+        Long getId();
+
+        LocalDateTime getTokensValidAfter();
+    }
 }
@@ -30,4 +30,14 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
     @Transactional
     @Query("DELETE FROM VerificationToken t WHERE t.user = ?1 AND t.tokenType = ?2")
     void deleteByUserAndTokenType(User user, TokenType tokenType);
+
+    /**
+     * Mark a token used only if it was not used yet (refresh rotation)
+     *
+     * @return 1 if this call used it, 0 if it was already used
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE VerificationToken t SET t.used = true WHERE t.id = ?1 AND t.used = false")
+    int markUsed(Long id);
 }
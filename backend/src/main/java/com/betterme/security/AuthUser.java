@@ -0,0 +1,45 @@
+package com.betterme.security;
+
+import com.betterme.model.Role;
+import com.betterme.model.User;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The authenticated user as seen by controllers: id, email and role.
+ *
+ * Built straight from the JWT claims, so authenticating a request never
+ * touches the database. Services that need the User entity get a JPA
+ * reference from the id (UserService.reference) and only load the row
+ * when they actually read or change it.
+ */
+@Value
+public class AuthUser implements Principal {
+    Long id;
+    String email;
+    Role role;
+
+    /**
+     * Principal for a loaded user (login, legacy tokens)
+     */
+    public static AuthUser from(User user) {
+        return new AuthUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    /**
+     * Same authorities as User.getAuthorities ("ROLE_" + role)
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
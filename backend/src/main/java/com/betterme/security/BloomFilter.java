@@ -0,0 +1,70 @@
+package com.betterme.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread-safe Bloom filter for string ids.
+ *
+ * mightContain() never returns false for an added id; it returns true for
+ * an id that was never added with probability ~fpp. Bits live in an
+ * AtomicLongArray, so adds and lookups need no locking.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    /**
+     * Sized for the expected number of ids at the given false positive rate
+     */
+    BloomFilter(int expectedInsertions, double fpp) {
+        int n = Math.max(expectedInsertions, 1);
+        long bits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64, bits);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((numBits + 63) / 64));
+    }
+
+    void add(String id) {
+        long hash = hash64(id);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = bitIndex(hash, i);
+            long mask = 1L << (bit & 63);
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    boolean mightContain(String id) {
+        long hash = hash64(id);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = bitIndex(hash, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing: the i-th index is h1 + i * h2
+    private long bitIndex(long hash, int i) {
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = hash >>> 32;
+        return Math.floorMod(h1 + i * h2, numBits);
+    }
+
+    // FNV-1a over the chars, then the MurmurHash3 finalizer to spread the bits
+    private static long hash64(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,150 @@
+package com.betterme.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BOUNDED, SELF-TUNING BCRYPT
+ *
+ * BCrypt is deliberately slow, so a login storm running it on Tomcat
+ * threads starves every other endpoint. All hashing and matching (login,
+ * register, password change / reset) runs on a small dedicated pool
+ * instead, with a bounded queue: when both are full the request fails
+ * at once with 503 rather than piling up.
+ *
+ * The cost is picked at startup so one hash takes about target-ms on
+ * this hardware (clamped to min/max-strength), unless strength pins it.
+ * Stored hashes with a lower cost are re-hashed on the next successful
+ * login (upgradeEncoding + UserDetailsPasswordService in SecurityConfig).
+ *
+ * Metrics (see /actuator/metrics):
+ * - executor.* {name=password.hashing} - pool size, queue, completed tasks
+ * - betterme.auth.hashing.rejected - requests refused with 503
+ * - betterme.auth.bcrypt.strength - cost used for new hashes
+ */
+@Component
+@Slf4j
+public class BoundedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final String SAMPLE_PASSWORD = "correct horse battery staple";
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+
+    public BoundedBCryptPasswordEncoder(
+            @Value("${app.password-hashing.strength:0}") int strength,
+            @Value("${app.password-hashing.target-ms:250}") long targetMs,
+            @Value("${app.password-hashing.min-strength:10}") int minStrength,
+            @Value("${app.password-hashing.max-strength:14}") int maxStrength,
+            @Value("${app.password-hashing.threads:0}") int threads,
+            @Value("${app.password-hashing.queue-capacity:50}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int cost = strength > 0 ? strength : tuneStrength(targetMs, minStrength, maxStrength);
+        this.delegate = new BCryptPasswordEncoder(cost);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.rejectedCounter = meterRegistry.counter("betterme.auth.hashing.rejected");
+        Gauge.builder("betterme.auth.bcrypt.strength", () -> cost).register(meterRegistry);
+        log.info("Password hashing: BCrypt strength {}, {} threads, queue {}", cost, poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash has a lower cost than the current one
+     * (cheap: only reads the hash prefix, no hashing)
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run on the hashing pool and wait for the result
+     *
+     * @throws PasswordHashingBusyException if the pool and queue are full
+     */
+    private <T> T run(Callable<T> work) {
+        try {
+            return executor.submit(work).get();
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Highest cost whose hash takes at most targetMs here. Each step doubles
+     * the work, so one measurement at minStrength is enough to extrapolate.
+     */
+    private static int tuneStrength(long targetMs, int minStrength, int maxStrength) {
+        String salt = BCrypt.gensalt(minStrength);
+        BCrypt.hashpw(SAMPLE_PASSWORD, salt); // warm-up (JIT)
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double baseMs = Math.max(best / 1_000_000.0, 0.1);
+
+        int strength = minStrength;
+        while (strength < maxStrength && baseMs * (1L << (strength + 1 - minStrength)) <= targetMs) {
+            strength++;
+        }
+        log.info("BCrypt strength {} measured at {} ms, target {} ms -> strength {}",
+                minStrength, String.format("%.1f", baseMs), targetMs, strength);
+        return strength;
+    }
+}
@@ -1,5 +1,7 @@
 package com.betterme.security;
 
+import com.betterme.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationService revocationService;
 
     @Override
     protected void doFilterInternal(
@@ -41,16 +45,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Seen before: already verified, skip the signature check
+                VerifiedTokenCache.VerifiedToken verified = tokenCache.get(jwt);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (verified == null) {
+                    // One signature check and claims parse (throws if invalid or expired)
+                    Claims claims = jwtService.parseToken(jwt);
+
+                    // Id and role come from the token itself: no database lookup
+                    AuthUser principal = jwtService.extractAuthUser(claims);
+                    if (principal == null) {
+                        principal = loadLegacyUser(claims);
+                    }
+                    if (principal != null) {
+                        verified = new VerifiedTokenCache.VerifiedToken(principal, claims.getId(),
+                                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : 0,
+                                claims.getExpiration().getTime());
+                        tokenCache.put(jwt, verified);
+                    }
+                }
+
+                // Logged-out tokens and sessions ended by a password change (in memory,
+                // database only on a Bloom filter hit)
+                AuthUser user = verified != null && !revocationService.isRevoked(verified)
+                        ? verified.getUser()
+                        : null;
+
+                if (user != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            user,
                             null,
-                            userDetails.getAuthorities());
+                            user.getAuthorities());
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -64,4 +91,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Tokens issued before the uid/role claims: look the user up by email
+     * (goes away once those tokens have expired)
+     */
+    private AuthUser loadLegacyUser(Claims claims) {
+        final String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        return userDetails instanceof User user ? AuthUser.from(user) : null;
+    }
 }
@@ -1,6 +1,9 @@
 package com.betterme.security;
 
+import com.betterme.model.Role;
+import com.betterme.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -9,9 +12,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -19,12 +24,32 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    // Claims that let the filter build the principal without a user lookup
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+
+    // Key and parser are built once; both are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+
     // @Value reads from application.yml
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.expiration}") long jwtExpiration) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+    }
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    /**
+     * VERIFY AND DECODE A TOKEN (once per request)
+     * Checks the signature and expiration, then returns the claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
 
     /**
      * Extract username (email) from token
@@ -33,13 +58,50 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Build the request principal from already verified claims
+     *
+     * @return null for tokens issued before the uid/role claims existed
+     */
+    public AuthUser extractAuthUser(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthUser(userId, claims.getSubject(), Role.valueOf(role));
+    }
+
+    /**
+     * Access token lifetime in seconds (expiresIn for clients)
+     */
+    public long getExpirationSeconds() {
+        return jwtExpiration / 1000;
+    }
+
     /**
      * Extract any claim from token using a function
      * Claims are the data stored in the token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseToken(token));
+    }
+
+    /**
+     * Generate token for a user, with id and role claims for the stateless principal
+     */
+    public String generateToken(User user) {
+        return generateToken(user, Instant.now());
+    }
+
+    /**
+     * Generate token for a user with a given issue time (valid from a revocation cutoff on)
+     */
+    public String generateToken(User user, Instant issuedAt) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        return buildToken(claims, user, issuedAt, jwtExpiration);
     }
 
     /**
@@ -53,7 +115,7 @@ public class JwtService {
      * Generate token with extra claims (additional data)
      */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        return buildToken(extraClaims, userDetails, Instant.now(), jwtExpiration);
     }
 
     /**
@@ -63,54 +125,30 @@ public class JwtService {
     private String buildToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails,
+            Instant issuedAt,
             long expiration) {
         return Jwts.builder()
                 .claims(extraClaims) // Custom data
                 .subject(userDetails.getUsername()) // Who is this token for?
-                .issuedAt(new Date(System.currentTimeMillis())) // When was it created?
-                .expiration(new Date(System.currentTimeMillis() + expiration)) // When expires?
-                .signWith(getSignInKey()) // Sign with secret key
+                .id(UUID.randomUUID().toString()) // Token id (jti), used to revoke it
+                .issuedAt(Date.from(issuedAt)) // When was it created?
+                .expiration(Date.from(issuedAt.plusMillis(expiration))) // When expires?
+                .signWith(signingKey) // Sign with secret key
                 .compact(); // Build the string
     }
 
     /**
-     * Validate if token is valid for this user
+     * Validate if token is valid for this user (one parse)
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = parseToken(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
     /**
      * Check if token is expired
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extract expiration date from token
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    /**
-     * Extract all claims (decode the token)
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Convert secret string to cryptographic key
-     */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 }
@@ -0,0 +1,28 @@
+package com.betterme.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Digests for storing or keying tokens without keeping the token itself
+ */
+public final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    /**
+     * SHA-256 of the token, URL-safe Base64 (43 chars)
+     */
+    public static String sha256(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.betterme.security;
+
+import com.betterme.model.RevokedToken;
+import com.betterme.repository.RevokedTokenRepository;
+import com.betterme.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ACCESS TOKEN REVOCATION
+ *
+ * Revoked jti's are stored in revoked_tokens until the token expires. Every
+ * authenticated request asks isRevoked(), so the check goes through an
+ * in-memory Bloom filter of that table first: a token that was never
+ * revoked (almost all of them) is answered without touching the database,
+ * only filter hits are confirmed with a primary-key lookup.
+ *
+ * A password change or reset ends all of a user's sessions at once: tokens
+ * issued before users.tokens_valid_after are rejected. Those times are kept
+ * in memory too, only for users who changed it within one access-token
+ * lifetime (older tokens have expired anyway). The comparison is on iat,
+ * which has second precision, so the cutoff is rounded UP to the next
+ * second: a token issued earlier in the same second is rejected too, and
+ * replacement tokens are issued at the cutoff (AuthService.renewSessions).
+ *
+ * The filter and the map are rebuilt from the database on startup and every
+ * app.token-revocation.refresh-interval-ms, which also picks up
+ * revocations made by other instances and drops expired ones.
+ *
+ * Metrics: betterme.auth.revocation.lookups - filter hits confirmed in the database
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final VerifiedTokenCache tokenCache;
+    private final Counter lookupCounter;
+
+    @Value("${jwt.expiration}")
+    private long accessTokenLifetimeMs;
+
+    @Value("${app.token-revocation.expected-revocations:100000}")
+    private int expectedRevocations;
+
+    @Value("${app.token-revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // userId -> epoch second before which that user's tokens are rejected
+    private volatile Map<Long, Long> tokensValidAfter = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, UserRepository userRepository,
+            VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenCache = tokenCache;
+        this.lookupCounter = meterRegistry.counter("betterme.auth.revocation.lookups");
+    }
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    /**
+     * Has this verified token been revoked, on its own or with all of its user's sessions?
+     */
+    public boolean isRevoked(VerifiedTokenCache.VerifiedToken token) {
+        Long validAfter = tokensValidAfter.get(token.getUser().getId());
+        if (validAfter != null && token.getIssuedAtSeconds() < validAfter) {
+            return true;
+        }
+        return isRevoked(token.getTokenId());
+    }
+
+    /**
+     * Has this access token been revoked? (tokens without a jti cannot be)
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        lookupCounter.increment();
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revoke an access token until it expires
+     */
+    public synchronized void revoke(String tokenId, Long userId, Instant expiresAt) {
+        if (tokenId == null || expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(tokenId)
+                .userId(userId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build());
+        filter.add(tokenId);
+    }
+
+    /**
+     * End every session of a user (password change / reset): all access
+     * tokens issued so far are rejected, on every instance
+     *
+     * @return the cutoff: tokens issued (iat) at or after it stay valid
+     */
+    public synchronized Instant revokeAllForUser(Long userId) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        userRepository.setTokensValidAfter(userId, LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault()));
+        tokensValidAfter.put(userId, cutoff.getEpochSecond());
+        tokenCache.invalidateUser(userId);
+        return cutoff;
+    }
+
+    /**
+     * Purge expired revocations and rebuild the filter from the table
+     * (synchronized with revoke so no revocation misses the new filter)
+     */
+    @Scheduled(fixedDelayString = "${app.token-revocation.refresh-interval-ms:60000}",
+            initialDelayString = "${app.token-revocation.refresh-interval-ms:60000}")
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<String> live = revokedTokenRepository.findLiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, live.size() * 2), falsePositiveRate);
+        live.forEach(rebuilt::add);
+        filter = rebuilt;
+
+        Map<Long, Long> validAfter = new ConcurrentHashMap<>();
+        for (UserRepository.TokensValidAfter user : userRepository.findTokensValidAfter(
+                now.minus(accessTokenLifetimeMs, ChronoUnit.MILLIS))) {
+            validAfter.put(user.getId(),
+                    user.getTokensValidAfter().atZone(ZoneId.systemDefault()).toEpochSecond());
+        }
+        tokensValidAfter = validAfter;
+
+        if (purged > 0 || !live.isEmpty()) {
+            log.info("Token revocation filter rebuilt: {} revoked, {} expired purged", live.size(), purged);
+        }
+    }
+}
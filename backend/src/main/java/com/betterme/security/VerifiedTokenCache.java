@@ -0,0 +1,109 @@
+package com.betterme.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VERIFIED TOKEN CACHE
+ *
+ * Clients send the same bearer token over and over. After the first
+ * request the verified principal is kept here until the token's exp, so
+ * repeat requests skip the HMAC check (and, for legacy tokens, the user
+ * lookup). Keys are SHA-256 digests, never the raw token.
+ *
+ * Size-bounded (jwt.cache.max-size, 0 = disabled). This is only a cache:
+ * revocation (logout, password change) is checked by TokenRevocationService
+ * on every request, cached or not. invalidateUser just frees the entries.
+ *
+ * Metrics (see /actuator/metrics): cache.gets{cache=jwt.verified, result=hit|miss},
+ * cache.size, cache.evictions
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        if (maxSize <= 0) {
+            this.cache = null;
+            log.info("Verified token cache disabled");
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * An already verified, unexpired token
+     *
+     * @return null on a miss (or when the cache is disabled)
+     */
+    public VerifiedToken get(String token) {
+        return cache != null ? cache.getIfPresent(TokenHashes.sha256(token)) : null;
+    }
+
+    /**
+     * Remember a verified token until it expires
+     */
+    public void put(String token, VerifiedToken verified) {
+        if (cache != null && verified.getExpiresAtMillis() > 0) {
+            cache.put(TokenHashes.sha256(token), verified);
+        }
+    }
+
+    /**
+     * Drop every cached token of a user (password change / reset)
+     * Scans the cache; these events are rare compared to lookups.
+     */
+    public void invalidateUser(Long userId) {
+        if (cache != null) {
+            cache.asMap().values().removeIf(entry -> entry.getUser().getId().equals(userId));
+        }
+    }
+
+    /**
+     * What a verified token stands for
+     */
+    @lombok.Value
+    public static class VerifiedToken {
+        AuthUser user;
+        String tokenId;        // jti, null for tokens issued before jti existed
+        long issuedAtSeconds;  // iat, 0 if missing
+        long expiresAtMillis;
+    }
+
+    /**
+     * Each entry lives exactly until its token's exp
+     */
+    private static class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken entry, long currentTime) {
+            long millisLeft = entry.getExpiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
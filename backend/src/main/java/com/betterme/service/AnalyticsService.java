@@ -1,7 +1,6 @@
 package com.betterme.service;
 
 import com.betterme.model.Habit;
-import com.betterme.model.HabitCheckIn;
 import com.betterme.model.User;
 import com.betterme.repository.HabitCheckInRepository;
 import com.betterme.repository.HabitRepository;
@@ -14,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.WeekFields;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,113 +25,105 @@ public class AnalyticsService {
 
     private final HabitRepository habitRepository;
     private final HabitCheckInRepository checkInRepository;
+    private final DailyActivityService dailyActivityService;
+    private final HabitBitmapService habitBitmapService;
 
     // TREND DATA (for line/bar charts)
 
     /**
      * Get daily trend data for the last N days
+     * Reads the daily_activity rollup: one row per day, not per check-in
      */
     public TrendData getDailyTrends(User user, int days) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days - 1);
 
-        List<Habit> habits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
-        if (habits.isEmpty()) {
+        int activeHabits = (int) habitRepository.countByUserAndActive(user, true);
+        if (activeHabits == 0) {
             return TrendData.empty(days);
         }
 
-        List<Long> habitIds = habits.stream().map(Habit::getId).collect(Collectors.toList());
-        List<HabitCheckIn> checkIns = checkInRepository.findByHabitIdInAndCheckInDateBetween(
-                habitIds, startDate, endDate);
-
-        // Group check-ins by date
-        Map<LocalDate, Long> checkInsByDate = checkIns.stream()
-                .collect(Collectors.groupingBy(HabitCheckIn::getCheckInDate, Collectors.counting()));
+        DailyActivityService.ActivityWindow window = dailyActivityService.load(user, startDate, endDate,
+                activeHabits);
+        DayCounts checkIns = window.getCheckIns();
 
         // Build data points
         List<TrendDataPoint> dataPoints = new ArrayList<>();
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            long count = checkInsByDate.getOrDefault(current, 0L);
-            double rate = habits.size() > 0 ? (count * 100.0) / habits.size() : 0;
+        double rateSum = 0;
+        for (int i = 0; i < checkIns.size(); i++) {
+            int count = checkIns.get(i);
+            int habitsThatDay = window.getActiveHabits().get(i);
+            double rate = habitsThatDay > 0 ? (count * 100.0) / habitsThatDay : 0;
+            double roundedRate = Math.round(rate * 10) / 10.0;
+            LocalDate date = checkIns.dateAt(i);
 
             dataPoints.add(TrendDataPoint.builder()
-                    .date(current)
-                    .label(current.toString())
-                    .checkIns((int) count)
-                    .totalHabits(habits.size())
-                    .completionRate(Math.round(rate * 10) / 10.0)
+                    .date(date)
+                    .label(date.toString())
+                    .checkIns(count)
+                    .totalHabits(habitsThatDay)
+                    .completionRate(roundedRate)
                     .build());
-
-            current = current.plusDays(1);
+            rateSum += roundedRate;
         }
 
         // Calculate overall average
-        double avgRate = dataPoints.stream()
-                .mapToDouble(TrendDataPoint::getCompletionRate)
-                .average()
-                .orElse(0);
+        double avgRate = dataPoints.isEmpty() ? 0 : rateSum / dataPoints.size();
 
         return TrendData.builder()
                 .period("daily")
                 .dataPoints(dataPoints)
                 .averageCompletionRate(Math.round(avgRate * 10) / 10.0)
-                .totalCheckIns(checkIns.size())
+                .totalCheckIns(checkIns.total())
                 .build();
     }
 
     /**
      * Get weekly trend data for the last N weeks
+     * 
+     * Weeks are Monday-based buckets counted from the first Monday, so weeks
+     * spanning New Year are no longer merged by their week-of-year number.
      */
     public TrendData getWeeklyTrends(User user, int weeks) {
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusWeeks(weeks);
+        LocalDate firstWeekStart = endDate.minusWeeks(weeks).with(DayOfWeek.MONDAY);
 
-        List<Habit> habits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
-        if (habits.isEmpty()) {
+        int activeHabits = (int) habitRepository.countByUserAndActive(user, true);
+        if (activeHabits == 0) {
             return TrendData.empty(weeks);
         }
 
-        List<Long> habitIds = habits.stream().map(Habit::getId).collect(Collectors.toList());
-        List<HabitCheckIn> checkIns = checkInRepository.findByHabitIdInAndCheckInDateBetween(
-                habitIds, startDate, endDate);
-
-        // Group by week
-        Map<Integer, List<HabitCheckIn>> byWeek = checkIns.stream()
-                .collect(Collectors
-                        .groupingBy(c -> c.getCheckInDate().get(java.time.temporal.WeekFields.ISO.weekOfYear())));
+        DailyActivityService.ActivityWindow window = dailyActivityService.load(user, firstWeekStart, endDate,
+                activeHabits);
+        DayCounts checkIns = window.getCheckIns();
 
         List<TrendDataPoint> dataPoints = new ArrayList<>();
-        LocalDate weekStart = startDate.with(DayOfWeek.MONDAY);
+        double rateSum = 0;
 
         for (int i = 0; i < weeks; i++) {
-            int weekNum = weekStart.get(java.time.temporal.WeekFields.ISO.weekOfYear());
-            List<HabitCheckIn> weekCheckIns = byWeek.getOrDefault(weekNum, Collections.emptyList());
-
-            int expectedPerWeek = habits.size() * 7;
-            double rate = expectedPerWeek > 0 ? (weekCheckIns.size() * 100.0) / expectedPerWeek : 0;
+            LocalDate weekStart = firstWeekStart.plusWeeks(i);
+            int weekCheckIns = checkIns.sum(i * 7, i * 7 + 7);
+            int expectedPerWeek = window.getActiveHabits().sum(i * 7, i * 7 + 7);
+            double rate = expectedPerWeek > 0 ? (weekCheckIns * 100.0) / expectedPerWeek : 0;
+            double roundedRate = Math.round(rate * 10) / 10.0;
 
             dataPoints.add(TrendDataPoint.builder()
                     .date(weekStart)
-                    .label("Week " + weekNum)
-                    .checkIns(weekCheckIns.size())
-                    .totalHabits(habits.size())
-                    .completionRate(Math.round(rate * 10) / 10.0)
+                    .label("Week " + weekStart.get(WeekFields.ISO.weekOfWeekBasedYear()))
+                    .checkIns(weekCheckIns)
+                    .totalHabits(activeHabits)
+                    .completionRate(roundedRate)
                     .build());
-
-            weekStart = weekStart.plusWeeks(1);
+            rateSum += roundedRate;
         }
 
-        double avgRate = dataPoints.stream()
-                .mapToDouble(TrendDataPoint::getCompletionRate)
-                .average()
-                .orElse(0);
+        double avgRate = dataPoints.isEmpty() ? 0 : rateSum / dataPoints.size();
 
         return TrendData.builder()
                 .period("weekly")
                 .dataPoints(dataPoints)
                 .averageCompletionRate(Math.round(avgRate * 10) / 10.0)
-                .totalCheckIns(checkIns.size())
+                .totalCheckIns(checkIns.total())
                 .build();
     }
 
@@ -139,48 +131,40 @@ public class AnalyticsService {
 
     /**
      * Get year heatmap data (GitHub contribution style)
+     * Reads at most 366 rollup rows, however many check-ins the year holds
      */
     public HeatmapData getYearHeatmap(User user, int year) {
         LocalDate startDate = LocalDate.of(year, 1, 1);
         LocalDate endDate = LocalDate.of(year, 12, 31);
 
-        List<Habit> habits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
-        if (habits.isEmpty()) {
+        int activeHabits = (int) habitRepository.countByUserAndActive(user, true);
+        if (activeHabits == 0) {
             return HeatmapData.empty(year);
         }
 
-        List<Long> habitIds = habits.stream().map(Habit::getId).collect(Collectors.toList());
-        List<HabitCheckIn> checkIns = checkInRepository.findByHabitIdInAndCheckInDateBetween(
-                habitIds, startDate, endDate);
-
-        // Group check-ins by date
-        Map<LocalDate, Long> checkInsByDate = checkIns.stream()
-                .collect(Collectors.groupingBy(HabitCheckIn::getCheckInDate, Collectors.counting()));
+        DailyActivityService.ActivityWindow window = dailyActivityService.load(user, startDate, endDate,
+                activeHabits);
+        DayCounts checkIns = window.getCheckIns();
 
         // Build heatmap cells
-        List<HeatmapCell> cells = new ArrayList<>();
-        LocalDate current = startDate;
-        int maxCheckIns = habits.size();
+        List<HeatmapCell> cells = new ArrayList<>(checkIns.size());
 
-        while (!current.isAfter(endDate)) {
-            int count = checkInsByDate.getOrDefault(current, 0L).intValue();
-            int level = calculateIntensityLevel(count, maxCheckIns);
+        for (int i = 0; i < checkIns.size(); i++) {
+            int count = checkIns.get(i);
 
             cells.add(HeatmapCell.builder()
-                    .date(current)
+                    .date(checkIns.dateAt(i))
                     .count(count)
-                    .level(level) // 0-4 intensity levels
+                    .level(calculateIntensityLevel(count, window.getActiveHabits().get(i))) // 0-4 intensity levels
                     .build());
-
-            current = current.plusDays(1);
         }
 
         return HeatmapData.builder()
                 .year(year)
                 .cells(cells)
-                .totalCheckIns(checkIns.size())
-                .daysWithActivity((int) checkInsByDate.size())
-                .longestStreak(calculateLongestStreak(checkInsByDate.keySet()))
+                .totalCheckIns(checkIns.total())
+                .daysWithActivity(checkIns.activeDays())
+                .longestStreak(checkIns.longestStreak())
                 .build();
     }
 
@@ -199,40 +183,28 @@ public class AnalyticsService {
         return 1;
     }
 
-    private int calculateLongestStreak(Set<LocalDate> activeDays) {
-        if (activeDays.isEmpty())
-            return 0;
-
-        List<LocalDate> sorted = activeDays.stream()
-                .sorted()
-                .collect(Collectors.toList());
-
-        int longest = 1;
-        int current = 1;
-
-        for (int i = 1; i < sorted.size(); i++) {
-            if (sorted.get(i).equals(sorted.get(i - 1).plusDays(1))) {
-                current++;
-                longest = Math.max(longest, current);
-            } else {
-                current = 1;
-            }
-        }
-
-        return longest;
-    }
-
     // PER-HABIT ANALYTICS
 
     /**
      * Get completion rates for each habit
+     * 
+     * @param completed optional filter: only completed (true) or skipped (false) check-ins
      */
-    public List<HabitAnalytics> getHabitAnalytics(User user, int days) {
+    public List<HabitAnalytics> getHabitAnalytics(User user, int days, Boolean completed) {
         LocalDate startDate = LocalDate.now().minusDays(days);
         List<Habit> habits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
 
+        Map<Long, Long> countsByHabit = completed == null
+                ? countFromBitmaps(habits, startDate.plusDays(1), LocalDate.now())
+                // Bitmaps only know "checked in", the completed flag needs the grouped query
+                : checkInRepository.countPerHabitAfter(user, startDate, completed)
+                        .stream()
+                        .collect(Collectors.toMap(
+                                HabitCheckInRepository.HabitCount::getHabitId,
+                                HabitCheckInRepository.HabitCount::getCheckIns));
+
         return habits.stream().map(habit -> {
-            long checkIns = checkInRepository.countByHabitAndCheckInDateAfter(habit, startDate);
+            long checkIns = countsByHabit.getOrDefault(habit.getId(), 0L);
             double rate = days > 0 ? (checkIns * 100.0) / days : 0;
 
             return HabitAnalytics.builder()
@@ -249,6 +221,18 @@ public class AnalyticsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Checked days per habit between from and to (inclusive), one bitmap query for all habits
+     */
+    private Map<Long, Long> countFromBitmaps(List<Habit> habits, LocalDate from, LocalDate to) {
+        Map<Long, CheckInBitmap> bitmaps = habitBitmapService.loadAll(
+                habits.stream().map(Habit::getId).collect(Collectors.toList()));
+
+        Map<Long, Long> counts = new HashMap<>();
+        bitmaps.forEach((habitId, bitmap) -> counts.put(habitId, (long) bitmap.countBetween(from, to)));
+        return counts;
+    }
+
     // DTOs
 
     @Data
@@ -5,24 +5,36 @@ import com.betterme.dto.LoginRequest;
 import com.betterme.dto.RegisterRequest;
 import com.betterme.model.User;
 import com.betterme.repository.UserRepository;
+import com.betterme.security.AuthUser;
 import com.betterme.security.JwtService;
+import com.betterme.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
 
 /**
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
         private final UserRepository userRepository;
         private final PasswordEncoder passwordEncoder;
         private final JwtService jwtService;
         private final AuthenticationManager authenticationManager;
+        private final RefreshTokenService refreshTokenService;
+        private final TokenRevocationService revocationService;
 
         /**
          * REGISTER NEW USER
@@ -45,18 +57,7 @@ public class AuthService {
                 // Save to database
                 User savedUser = userRepository.save(user);
 
-                // Generate JWT token
-                String jwtToken = jwtService.generateToken(savedUser);
-
-                return AuthResponse.builder()
-                                .token(jwtToken)
-                                .type("Bearer")
-                                .id(savedUser.getId())
-                                .name(savedUser.getName())
-                                .email(savedUser.getEmail())
-                                .role(savedUser.getRole().name())
-                                .message("Registration successful! Welcome to BetterMe!")
-                                .build();
+                return tokenResponse(savedUser, "Registration successful! Welcome to BetterMe!");
         }
 
         /**
@@ -73,17 +74,75 @@ public class AuthService {
                 User user = userRepository.findByEmail(request.getEmail())
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                // Generate JWT token
-                String jwtToken = jwtService.generateToken(user);
+                return tokenResponse(user, "Login successful! Welcome back!");
+        }
+
+        /**
+         * REFRESH - Trade a refresh token for a new access + refresh token pair
+         * The old refresh token stops working (rotation).
+         *
+         * @return empty if the refresh token is invalid, expired or reused
+         */
+        @Transactional
+        public Optional<AuthResponse> refresh(String refreshToken) {
+                return refreshTokenService.consume(refreshToken)
+                                .map(user -> tokenResponse(user, "Token refreshed"));
+        }
+
+        /**
+         * LOGOUT - Revoke the access token until it expires and drop the refresh token
+         * Either token may be missing or already invalid.
+         */
+        public void logout(String accessToken, String refreshToken) {
+                if (accessToken != null) {
+                        try {
+                                Claims claims = jwtService.parseToken(accessToken);
+                                AuthUser user = jwtService.extractAuthUser(claims);
+                                if (user != null) {
+                                        revocationService.revoke(claims.getId(), user.getId(),
+                                                        claims.getExpiration().toInstant());
+                                }
+                        } catch (JwtException | IllegalArgumentException e) {
+                                // Invalid or expired: nothing to revoke
+                                log.debug("Logout with unusable access token: {}", e.getMessage());
+                        }
+                }
+                if (refreshToken != null) {
+                        refreshTokenService.revoke(refreshToken);
+                }
+        }
+
+        /**
+         * END ALL SESSIONS - Revoke every access and refresh token of a user
+         * (password change) and return a new pair for the caller. The access
+         * token is issued at the revocation cutoff, so it is the only one
+         * that still passes.
+         */
+        @Transactional
+        public AuthResponse renewSessions(User user, String message) {
+                Instant cutoff = revocationService.revokeAllForUser(user.getId());
+                refreshTokenService.revokeAll(user);
+                return tokenResponse(user, cutoff, message);
+        }
+
+        /**
+         * New access + refresh token pair for a user
+         */
+        private AuthResponse tokenResponse(User user, String message) {
+                return tokenResponse(user, Instant.now(), message);
+        }
 
+        private AuthResponse tokenResponse(User user, Instant issuedAt, String message) {
                 return AuthResponse.builder()
-                                .token(jwtToken)
+                                .token(jwtService.generateToken(user, issuedAt))
+                                .refreshToken(refreshTokenService.issue(user))
+                                .expiresIn(jwtService.getExpirationSeconds())
                                 .type("Bearer")
                                 .id(user.getId())
                                 .name(user.getName())
                                 .email(user.getEmail())
                                 .role(user.getRole().name())
-                                .message("Login successful! Welcome back!")
+                                .message(message)
                                 .build();
         }
 }
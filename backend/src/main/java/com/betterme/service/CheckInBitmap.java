@@ -0,0 +1,157 @@
+package com.betterme.service;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A habit's whole check-in history as one bitmap.
+ *
+ * Built from the stored per-year bitmaps (HabitYearBitmap). Bit i is the
+ * day (Jan 1 of the first stored year + i), so streaks, month views and
+ * completion counts are bit scans instead of check-in row scans.
+ */
+public final class CheckInBitmap {
+
+    private static final CheckInBitmap EMPTY = new CheckInBitmap(0, new BitSet());
+
+    private final long baseEpochDay;
+    private final BitSet days;
+
+    private CheckInBitmap(long baseEpochDay, BitSet days) {
+        this.baseEpochDay = baseEpochDay;
+        this.days = days;
+    }
+
+    /**
+     * History with no check-ins
+     */
+    public static CheckInBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builder that merges the stored years of one habit
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    // QUERIES
+
+    /**
+     * Was the habit checked in on this date?
+     */
+    public boolean isChecked(LocalDate date) {
+        long index = indexOf(date);
+        return index >= 0 && index <= Integer.MAX_VALUE && days.get((int) index);
+    }
+
+    /**
+     * Number of checked days between from and to (both inclusive)
+     */
+    public int countBetween(LocalDate from, LocalDate to) {
+        int start = clamp(indexOf(from));
+        int end = clamp(indexOf(to) + 1);
+        int count = 0;
+        for (int i = days.nextSetBit(start); i >= 0 && i < end; i = days.nextSetBit(i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Length of the run of consecutive checked days ending on this date
+     * (0 if the date itself is not checked)
+     */
+    public int runEndingAt(LocalDate date) {
+        if (!isChecked(date)) {
+            return 0;
+        }
+        int index = (int) indexOf(date);
+        return index - days.previousClearBit(index);
+    }
+
+    /**
+     * Length of the run of consecutive checked days starting on this date
+     * (0 if the date itself is not checked)
+     */
+    public int runStartingAt(LocalDate date) {
+        if (!isChecked(date)) {
+            return 0;
+        }
+        int index = (int) indexOf(date);
+        return days.nextClearBit(index) - index;
+    }
+
+    /**
+     * Longest run of consecutive checked days in the whole history
+     */
+    public int longestRun() {
+        int longest = 0;
+        for (int start = days.nextSetBit(0); start >= 0; start = days.nextSetBit(start)) {
+            int end = days.nextClearBit(start);
+            longest = Math.max(longest, end - start);
+            start = end;
+        }
+        return longest;
+    }
+
+    /**
+     * Checked days of a month as a mask: bit (day - 1) set if checked
+     */
+    public int monthMask(YearMonth month) {
+        long start = indexOf(month.atDay(1));
+        if (start < 0) {
+            // History starts on Jan 1 of a later year
+            return 0;
+        }
+        long[] words = days.get(clamp(start), clamp(start + month.lengthOfMonth())).toLongArray();
+        return words.length == 0 ? 0 : (int) words[0];
+    }
+
+    private long indexOf(LocalDate date) {
+        return date.toEpochDay() - baseEpochDay;
+    }
+
+    private static int clamp(long index) {
+        return (int) Math.max(0, Math.min(index, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Merges stored years into one bitmap
+     */
+    static final class Builder {
+
+        private final SortedMap<Integer, byte[]> years = new TreeMap<>();
+
+        /**
+         * Add one stored year (bit n = day-of-year n + 1)
+         */
+        Builder addYear(int year, byte[] bits) {
+            years.put(year, bits);
+            return this;
+        }
+
+        CheckInBitmap build() {
+            if (years.isEmpty()) {
+                return EMPTY;
+            }
+
+            long base = LocalDate.of(years.firstKey(), 1, 1).toEpochDay();
+            BitSet days = new BitSet();
+            years.forEach((year, bits) -> {
+                int offset = (int) (LocalDate.of(year, 1, 1).toEpochDay() - base);
+                BitSet yearBits = BitSet.valueOf(bits);
+                int daysInYear = Year.of(year).length();
+                for (int n = yearBits.nextSetBit(0); n >= 0 && n < daysInYear; n = yearBits.nextSetBit(n + 1)) {
+                    days.set(offset + n);
+                }
+            });
+            return new CheckInBitmap(base, days);
+        }
+    }
+}
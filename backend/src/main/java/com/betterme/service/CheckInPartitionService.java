@@ -0,0 +1,154 @@
+package com.betterme.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * PARTITION MAINTENANCE for habit_checkins (monthly range partitions, see V4 migration)
+ *
+ * Runs at startup and nightly:
+ * 1. Create the partitions for the next months ahead of time
+ * 2. Give months that ended up in the default partition their own partition
+ * 3. Detach partitions older than the retention window (if configured)
+ *
+ * Detaching is a metadata operation: the old month stays as a plain table
+ * (habit_checkins_YYYY_MM) to archive or drop, instead of a mass DELETE.
+ * Detached months are no longer part of habit_checkins, so rebuilds
+ * (RollupBackfillRunner: daily rollup and bitmaps) and sync ignore them.
+ *
+ * Months that can still get check-ins (app.check-ins.max-backfill-days)
+ * are never detached: a retention window shorter than the backfill window
+ * fails startup, and the cutoff is clamped to the oldest writable month.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckInPartitionService {
+
+    private static final String PARTITION_PREFIX = "habit_checkins_";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.checkin-partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * 0 = keep every month attached
+     */
+    @Value("${app.checkin-partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${app.check-ins.max-backfill-days:365}")
+    private int maxBackfillDays;
+
+    @PostConstruct
+    void checkRetention() {
+        checkRetention(retentionMonths, maxBackfillDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.checkin-partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            log.warn("habit_checkins is not partitioned (migration V4 not applied), skipping maintenance");
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        List<LocalDate> strayMonths = jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', checkin_date)::date FROM habit_checkins_default",
+                LocalDate.class);
+        strayMonths.forEach(month -> createPartition(YearMonth.from(month)));
+
+        if (retentionMonths > 0) {
+            detachOlderThan(detachCutoff(LocalDate.now(), retentionMonths, maxBackfillDays));
+        }
+    }
+
+    /**
+     * Fail when even 31-day months cannot cover the backfill window
+     * (shorter calendar months are handled by the cutoff clamp)
+     */
+    static void checkRetention(int retentionMonths, int maxBackfillDays) {
+        if (retentionMonths > 0 && retentionMonths * 31 <= maxBackfillDays) {
+            throw new IllegalStateException(String.format(
+                    "app.checkin-partitions.retention-months=%d is shorter than app.check-ins.max-backfill-days=%d: "
+                            + "check-ins could be logged into detached months (use at least %d, or 0)",
+                    retentionMonths, maxBackfillDays, maxBackfillDays / 31 + 1));
+        }
+    }
+
+    /**
+     * First month to keep attached: retentionMonths back, but never after
+     * the month of the oldest date a check-in can still be logged for
+     */
+    static YearMonth detachCutoff(LocalDate today, int retentionMonths, int maxBackfillDays) {
+        YearMonth retention = YearMonth.from(today).minusMonths(retentionMonths);
+        YearMonth oldestWritable = YearMonth.from(today.minusDays(maxBackfillDays));
+        return retention.isAfter(oldestWritable) ? oldestWritable : retention;
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regprocedure('create_habit_checkin_partition(date)') IS NOT NULL",
+                Boolean.class));
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = jdbcTemplate.queryForObject(
+                "SELECT create_habit_checkin_partition(?)", String.class, month.atDay(1));
+        log.debug("Partition {} ready", name);
+    }
+
+    /**
+     * Detach every monthly partition before the cutoff month
+     */
+    private void detachOlderThan(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'habit_checkins'
+                """, String.class);
+
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE habit_checkins DETACH PARTITION \"" + partition + "\"");
+                log.info("🗄️ Detached check-in partition {} (retention {} months)", partition, retentionMonths);
+            }
+        }
+    }
+
+    /**
+     * habit_checkins_2024_01 → 2024-01 (null for the default partition)
+     */
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.betterme.service;
+
+import com.betterme.dto.HabitResponse;
+import com.betterme.model.Habit;
+import com.betterme.model.User;
+import com.betterme.repository.HabitCheckInRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves "checked in today?" for a whole list of habits at once.
+ * Every habit list (habits page, stats, leaderboard, achievements) goes
+ * through here so the cost is one query on (user_id, checkin_date),
+ * not one query per habit or an IN-list of habit ids.
+ */
+@Service
+@RequiredArgsConstructor
+public class CheckInResolver {
+
+    private final HabitCheckInRepository checkInRepository;
+
+    /**
+     * IDs of the user's habits (from this list) that have a check-in on the given date
+     */
+    public Set<Long> checkedInOn(User user, Collection<Habit> habits, LocalDate date) {
+        if (habits.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> checked = new HashSet<>(checkInRepository.findCheckedInHabitIdsByUser(user, date));
+        checked.retainAll(habits.stream()
+                .map(Habit::getId)
+                .collect(Collectors.toSet()));
+        return checked;
+    }
+
+    /**
+     * IDs of the user's habits (from this list) that have a check-in today
+     */
+    public Set<Long> checkedInToday(User user, Collection<Habit> habits) {
+        return checkedInOn(user, habits, LocalDate.now());
+    }
+
+    /**
+     * Convert a user's habit list to responses with the "checked in today" flag filled in
+     */
+    public List<HabitResponse> toResponses(User user, List<Habit> habits) {
+        Set<Long> checkedToday = checkedInToday(user, habits);
+
+        return habits.stream()
+                .map(habit -> HabitResponse.fromEntity(habit, checkedToday.contains(habit.getId())))
+                .collect(Collectors.toList());
+    }
+}
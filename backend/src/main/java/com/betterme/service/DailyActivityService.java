@@ -0,0 +1,110 @@
+package com.betterme.service;
+
+import com.betterme.model.User;
+import com.betterme.repository.DailyActivityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains and reads the per-user daily rollup (daily_activity).
+ *
+ * Writes join the caller's transaction, so a check-in and its rollup
+ * increment commit or roll back together. Reads cost one row per day
+ * requested, no matter how many check-ins are stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyActivityService {
+
+    private final DailyActivityRepository dailyActivityRepository;
+
+    // WRITES
+
+    /**
+     * Count check-ins of active habits (delta > 0) or undone ones (delta < 0) on a day
+     */
+    @Transactional
+    public void addCheckIns(User user, LocalDate date, int delta) {
+        dailyActivityRepository.addCheckIns(user.getId(), date, delta);
+    }
+
+    /**
+     * Count one habit's check-in (delta = 1) or undone check-in (delta = -1),
+     * unless the habit is archived (its check-ins are no longer counted)
+     */
+    @Transactional
+    public void addCheckIn(User user, Long habitId, LocalDate date, int delta) {
+        dailyActivityRepository.addHabitCheckIns(user.getId(), habitId, date, delta);
+    }
+
+    /**
+     * A habit was archived: drop its check-ins from every day and refresh
+     * today's active habit count. Call after the habit is flushed inactive.
+     */
+    @Transactional
+    public void archiveHabit(User user, Long habitId) {
+        dailyActivityRepository.removeHabitCheckIns(user.getId(), habitId);
+        refreshActiveHabits(user);
+    }
+
+    /**
+     * A habit was created or archived: refresh today's active habit count
+     */
+    @Transactional
+    public void refreshActiveHabits(User user) {
+        dailyActivityRepository.refreshActiveHabitCount(user.getId(), LocalDate.now());
+    }
+
+    /**
+     * Backfill: rebuild the whole rollup from the active habits' check-ins
+     */
+    @Transactional
+    public int rebuildAll() {
+        dailyActivityRepository.deleteAllRows();
+        int rows = dailyActivityRepository.rebuildFromCheckIns();
+        log.info("Rebuilt daily activity rollup: {} rows", rows);
+        return rows;
+    }
+
+    // READS
+
+    /**
+     * Load the rollup for a date range (both inclusive)
+     * 
+     * @param currentActiveHabits used for days without a rollup row
+     */
+    public ActivityWindow load(User user, LocalDate startDate, LocalDate endDate, int currentActiveHabits) {
+        DayCounts checkIns = new DayCounts(startDate, endDate);
+        DayCounts activeHabits = new DayCounts(startDate, endDate);
+        boolean[] hasRow = new boolean[checkIns.size()];
+
+        for (DailyActivityRepository.DayActivity day : dailyActivityRepository.findDays(user.getId(), startDate,
+                endDate)) {
+            checkIns.add(day.getActivityDate(), day.getCheckInCount());
+            activeHabits.add(day.getActivityDate(), day.getActiveHabitCount());
+            hasRow[(int) (day.getActivityDate().toEpochDay() - startDate.toEpochDay())] = true;
+        }
+
+        for (int i = 0; i < hasRow.length; i++) {
+            if (!hasRow[i]) {
+                activeHabits.add(activeHabits.dateAt(i), currentActiveHabits);
+            }
+        }
+
+        return new ActivityWindow(checkIns, activeHabits);
+    }
+
+    /**
+     * Rollup for a date range: check-ins per day and active habits per day
+     */
+    @lombok.Value
+    public static class ActivityWindow {
+        DayCounts checkIns;
+        DayCounts activeHabits;
+    }
+}
@@ -2,7 +2,6 @@ package com.betterme.service;
 
 import com.betterme.dto.*;
 import com.betterme.model.Habit;
-import com.betterme.model.HabitCheckIn;
 import com.betterme.model.User;
 import com.betterme.repository.GoalRepository;
 import com.betterme.repository.HabitCheckInRepository;
@@ -28,6 +27,9 @@ public class DashboardService {
         private final HabitRepository habitRepository;
         private final HabitCheckInRepository checkInRepository;
         private final GoalRepository goalRepository;
+        private final CheckInResolver checkInResolver;
+        private final DailyActivityService dailyActivityService;
+        private final HabitBitmapService habitBitmapService;
 
         // Motivational quotes for the dashboard
         private static final List<String> QUOTES = List.of(
@@ -47,56 +49,40 @@ public class DashboardService {
          */
         public DashboardSummary getSummary(User user) {
                 LocalDate today = LocalDate.now();
-                List<Habit> activeHabits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
-
-                // Count today's completions
-                long completedToday = activeHabits.stream()
-                                .filter(h -> checkInRepository.existsByHabitAndCheckInDate(h, today))
-                                .count();
-
-                long totalActive = activeHabits.size();
 
-                // Find best streak
-                Habit bestStreakHabit = activeHabits.stream()
-                                .max(Comparator.comparing(Habit::getLongestStreak))
-                                .orElse(null);
+                // One aggregate query + one lookup for the best-streak habit
+                HabitRepository.SummaryTotals totals = habitRepository.getSummaryTotals(user, today);
+                Optional<HabitRepository.StreakLeader> bestStreakHabit = habitRepository
+                                .findFirstByUserAndActiveOrderByLongestStreakDescCreatedAtDesc(user, true);
 
-                // Calculate totals
-                int currentStreakTotal = activeHabits.stream()
-                                .mapToInt(Habit::getCurrentStreak)
-                                .sum();
-
-                long totalCheckIns = activeHabits.stream()
-                                .mapToLong(Habit::getTotalCheckIns)
-                                .sum();
+                long totalActive = totals.getActiveHabits();
+                long completedToday = totals.getCompletedToday();
 
                 // Days since first habit
-                int daysActive = activeHabits.stream()
-                                .map(Habit::getCreatedAt)
-                                .filter(Objects::nonNull)
-                                .min(Comparator.naturalOrder())
-                                .map(createdAt -> (int) ChronoUnit.DAYS.between(createdAt.toLocalDate(), today))
-                                .orElse(0);
+                int daysActive = totals.getFirstCreatedAt() != null
+                                ? (int) ChronoUnit.DAYS.between(totals.getFirstCreatedAt().toLocalDate(), today)
+                                : 0;
 
                 double completionPercentage = totalActive > 0
                                 ? (completedToday * 100.0) / totalActive
                                 : 0;
 
-                // Count active (non-completed) goals
-                long activeGoalCount = goalRepository.countByUserAndActiveAndCompleted(user, true, false);
-
                 return DashboardSummary.builder()
-                                .totalHabits(habitRepository.countByUser(user))
+                                .totalHabits(totals.getTotalHabits())
                                 .activeHabits(totalActive)
-                                .activeGoals(activeGoalCount)
+                                .activeGoals(totals.getActiveGoals())
                                 .completedToday(completedToday)
                                 .remainingToday(totalActive - completedToday)
                                 .completionPercentage(Math.round(completionPercentage * 10) / 10.0)
                                 .todayProgress(Math.round(completionPercentage * 10) / 10.0)
-                                .currentStreakTotal(currentStreakTotal)
-                                .longestStreak(bestStreakHabit != null ? bestStreakHabit.getLongestStreak() : 0)
-                                .longestStreakHabit(bestStreakHabit != null ? bestStreakHabit.getName() : null)
-                                .totalCheckIns(totalCheckIns)
+                                .currentStreakTotal(totals.getCurrentStreakTotal().intValue())
+                                .longestStreak(bestStreakHabit
+                                                .map(HabitRepository.StreakLeader::getLongestStreak)
+                                                .orElse(0))
+                                .longestStreakHabit(bestStreakHabit
+                                                .map(HabitRepository.StreakLeader::getName)
+                                                .orElse(null))
+                                .totalCheckIns(totals.getTotalCheckIns())
                                 .daysActive(daysActive)
                                 .motivationalQuote(QUOTES.get(new Random().nextInt(QUOTES.size())))
                                 .build();
@@ -111,9 +97,13 @@ public class DashboardService {
                 LocalDate today = LocalDate.now();
                 LocalDate weekStart = today.minusDays(6);
 
-                List<Habit> activeHabits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
+                int activeHabits = (int) habitRepository.countByUserAndActive(user, true);
                 List<WeeklyProgress.DayProgress> days = new ArrayList<>();
 
+                // Seven rollup rows instead of scanning check-ins
+                DailyActivityService.ActivityWindow window = dailyActivityService.load(user, weekStart, today,
+                                activeHabits);
+
                 int totalCompletions = 0;
                 int totalPossible = 0;
 
@@ -122,15 +112,8 @@ public class DashboardService {
                         LocalDate date = weekStart.plusDays(i);
                         String dayName = date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
 
-                        // Count completions for this day
-                        int completed = 0;
-                        for (Habit habit : activeHabits) {
-                                if (checkInRepository.existsByHabitAndCheckInDate(habit, date)) {
-                                        completed++;
-                                }
-                        }
-
-                        int total = activeHabits.size();
+                        int completed = window.getCheckIns().get(i);
+                        int total = window.getActiveHabits().get(i);
                         double percentage = total > 0 ? (completed * 100.0) / total : 0;
 
                         days.add(WeeklyProgress.DayProgress.builder()
@@ -172,30 +155,33 @@ public class DashboardService {
 
                 List<Habit> activeHabits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
 
-                Set<LocalDate> allCheckedDates = new HashSet<>();
+                // One bitmap query for all habits, bit (day - 1) set per checked day
+                Map<Long, CheckInBitmap> bitmaps = habitBitmapService.loadAll(
+                                activeHabits.stream().map(Habit::getId).collect(Collectors.toList()));
+
+                int allCheckedDays = 0;
                 List<MonthlyCalendar.HabitMonthData> habitDataList = new ArrayList<>();
 
                 for (Habit habit : activeHabits) {
-                        List<HabitCheckIn> checkIns = checkInRepository
-                                        .findByHabitAndCheckInDateBetweenOrderByCheckInDateDesc(habit, monthStart,
-                                                        monthEnd);
-
-                        Set<LocalDate> habitCheckedDates = checkIns.stream()
-                                        .map(HabitCheckIn::getCheckInDate)
-                                        .collect(Collectors.toSet());
-
-                        allCheckedDates.addAll(habitCheckedDates);
+                        int habitCheckedDays = bitmaps.getOrDefault(habit.getId(), CheckInBitmap.empty())
+                                        .monthMask(yearMonth);
+                        allCheckedDays |= habitCheckedDays;
 
                         habitDataList.add(MonthlyCalendar.HabitMonthData.builder()
                                         .habitId(habit.getId())
                                         .habitName(habit.getName())
                                         .icon(habit.getIcon())
-                                        .checkedDates(habitCheckedDates)
-                                        .checkInCount(habitCheckedDates.size())
+                                        .checkedDays(habitCheckedDays)
+                                        .checkInCount(Integer.bitCount(habitCheckedDays))
                                         .currentStreak(habit.getCurrentStreak())
                                         .build());
                 }
 
+                Set<LocalDate> allCheckedDates = new TreeSet<>();
+                for (int bits = allCheckedDays; bits != 0; bits &= bits - 1) {
+                        allCheckedDates.add(monthStart.plusDays(Integer.numberOfTrailingZeros(bits)));
+                }
+
                 int daysInMonth = yearMonth.lengthOfMonth();
                 double completionRate = daysInMonth > 0
                                 ? (allCheckedDates.size() * 100.0) / daysInMonth
@@ -219,17 +205,12 @@ public class DashboardService {
          * Get user's habits sorted by streak (for leaderboard view)
          */
         public List<HabitResponse> getStreakLeaderboard(User user) {
-                LocalDate today = LocalDate.now();
-
-                return habitRepository.findTopStreaksByUser(user).stream()
+                List<Habit> topHabits = habitRepository.findTopStreaksByUser(user).stream()
                                 .filter(Habit::getActive)
                                 .limit(10)
-                                .map(habit -> {
-                                        boolean checkedToday = checkInRepository.existsByHabitAndCheckInDate(habit,
-                                                        today);
-                                        return HabitResponse.fromEntity(habit, checkedToday);
-                                })
                                 .collect(Collectors.toList());
+
+                return checkInResolver.toResponses(user, topHabits);
         }
 
         // ACHIEVEMENTS
@@ -253,10 +234,7 @@ public class DashboardService {
                 long totalHabits = habitRepository.countByUser(user);
 
                 // Check for perfect day
-                LocalDate today = LocalDate.now();
-                long completedToday = activeHabits.stream()
-                                .filter(h -> checkInRepository.existsByHabitAndCheckInDate(h, today))
-                                .count();
+                long completedToday = checkInResolver.checkedInToday(user, activeHabits).size();
                 boolean hasPerfectDay = !activeHabits.isEmpty() && completedToday == activeHabits.size();
 
                 List<Achievement> achievements = new ArrayList<>();
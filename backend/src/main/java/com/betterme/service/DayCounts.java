@@ -0,0 +1,116 @@
+package com.betterme.service;
+
+import java.time.LocalDate;
+
+/**
+ * Per-day counters for a fixed date range, backed by a plain int[].
+ *
+ * Index i is the day (start + i), i.e. the epoch-day offset from the
+ * range start. Analytics feed check-in dates in with add() and then read
+ * daily values, weekly buckets and streaks without boxing or grouping
+ * into maps.
+ */
+public final class DayCounts {
+
+    private final LocalDate start;
+    private final long startEpochDay;
+    private final int[] counts;
+
+    /**
+     * Counters for every day from start to end (both inclusive)
+     */
+    public DayCounts(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start");
+        }
+        this.start = start;
+        this.startEpochDay = start.toEpochDay();
+        this.counts = new int[(int) (end.toEpochDay() - startEpochDay) + 1];
+    }
+
+    /**
+     * Count one check-in on this date (dates outside the range are ignored)
+     */
+    public void add(LocalDate date) {
+        add(date, 1);
+    }
+
+    /**
+     * Add n check-ins on this date (dates outside the range are ignored)
+     */
+    public void add(LocalDate date, int n) {
+        long offset = date.toEpochDay() - startEpochDay;
+        if (offset >= 0 && offset < counts.length) {
+            counts[(int) offset] += n;
+        }
+    }
+
+    /**
+     * Number of days in the range
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    /**
+     * Date of the day at this index
+     */
+    public LocalDate dateAt(int index) {
+        return start.plusDays(index);
+    }
+
+    /**
+     * Count for the day at this index
+     */
+    public int get(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Sum of the days in [from, to)
+     */
+    public int sum(int from, int to) {
+        int sum = 0;
+        for (int i = Math.max(from, 0); i < Math.min(to, counts.length); i++) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of all days
+     */
+    public int total() {
+        return sum(0, counts.length);
+    }
+
+    /**
+     * Number of days with at least one check-in
+     */
+    public int activeDays() {
+        int days = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                days++;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Longest run of consecutive days with at least one check-in
+     */
+    public int longestStreak() {
+        int longest = 0;
+        int current = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                current++;
+                longest = Math.max(longest, current);
+            } else {
+                current = 0;
+            }
+        }
+        return longest;
+    }
+}
@@ -5,6 +5,7 @@ import com.betterme.dto.GoalResponse;
 import com.betterme.model.Goal;
 import com.betterme.model.Habit;
 import com.betterme.model.User;
+import com.betterme.repository.GoalProgressRepository;
 import com.betterme.repository.GoalRepository;
 import com.betterme.repository.HabitRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +14,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -73,7 +74,7 @@ public class GoalService {
         }
 
         Goal saved = goalRepository.save(goal);
-        log.info("Created goal '{}' for user {}", saved.getTitle(), user.getEmail());
+        log.info("Created goal '{}' for user {}", saved.getTitle(), user.getId());
 
         return GoalResponse.fromEntity(saved);
     }
@@ -117,7 +118,7 @@ public class GoalService {
 
         goal.setActive(false);
         goalRepository.save(goal);
-        log.info("Archived goal '{}' for user {}", goal.getTitle(), user.getEmail());
+        log.info("Archived goal '{}' for user {}", goal.getTitle(), user.getId());
     }
 
     // PROGRESS TRACKING
@@ -127,41 +128,32 @@ public class GoalService {
      */
     @Transactional
     public GoalResponse updateProgress(Long goalId, Integer newValue, User user) {
-        Goal goal = goalRepository.findByIdAndUser(goalId, user)
-                .orElseThrow(() -> new RuntimeException("Goal not found"));
-
-        goal.setCurrentValue(newValue);
-
-        // Check if goal is now completed
-        if (goal.isGoalCompleted() && !goal.getCompleted()) {
-            goal.setCompleted(true);
-            goal.setCompletedAt(LocalDateTime.now());
-            log.info("🎉 Goal '{}' completed!", goal.getTitle());
-        }
-
-        Goal saved = goalRepository.save(goal);
-        return GoalResponse.fromEntity(saved);
+        return toProgressResponse(goalId, user,
+                goalRepository.setProgress(goalId, user.getId(), newValue));
     }
 
     /**
      * Increment progress by a value
+     * One atomic UPDATE: parallel increments from several devices all count.
      */
     @Transactional
     public GoalResponse incrementProgress(Long goalId, Integer increment, User user) {
-        Goal goal = goalRepository.findByIdAndUser(goalId, user)
-                .orElseThrow(() -> new RuntimeException("Goal not found"));
+        return toProgressResponse(goalId, user,
+                goalRepository.incrementProgress(goalId, user.getId(), increment));
+    }
 
-        int newValue = goal.getCurrentValue() + increment;
-        goal.setCurrentValue(newValue);
+    private GoalResponse toProgressResponse(Long goalId, User user,
+            Optional<GoalProgressRepository.ProgressUpdate> update) {
+        GoalProgressRepository.ProgressUpdate progress = update
+                .orElseThrow(() -> new RuntimeException("Goal not found"));
 
-        if (goal.isGoalCompleted() && !goal.getCompleted()) {
-            goal.setCompleted(true);
-            goal.setCompletedAt(LocalDateTime.now());
+        // Read the goal after the update (first load in this transaction)
+        Goal goal = goalRepository.findByIdAndUser(goalId, user)
+                .orElseThrow(() -> new RuntimeException("Goal not found"));
+        if (progress.isJustCompleted()) {
             log.info("🎉 Goal '{}' completed!", goal.getTitle());
         }
-
-        Goal saved = goalRepository.save(goal);
-        return GoalResponse.fromEntity(saved);
+        return GoalResponse.fromEntity(goal);
     }
 
     // STATS
@@ -170,23 +162,16 @@ public class GoalService {
      * Get goal statistics for a user
      */
     public GoalStats getStats(User user) {
-        List<Goal> activeGoals = goalRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
-        long completed = goalRepository.countByUserAndCompleted(user, true);
-
-        List<Goal> upcomingDeadlines = goalRepository.findUpcomingDeadlines(
+        GoalRepository.GoalStatsTotals totals = goalRepository.getStatsTotals(
                 user, LocalDate.now().plusDays(7));
 
-        double avgProgress = activeGoals.stream()
-                .filter(g -> !g.getCompleted())
-                .mapToDouble(Goal::getProgressPercentage)
-                .average()
-                .orElse(0);
+        double avgProgress = totals.getAverageProgress() != null ? totals.getAverageProgress() : 0;
 
         return GoalStats.builder()
-                .totalGoals(activeGoals.size())
-                .completedGoals(completed)
-                .inProgressGoals(activeGoals.stream().filter(g -> !g.getCompleted()).count())
-                .upcomingDeadlines(upcomingDeadlines.size())
+                .totalGoals(totals.getTotalGoals())
+                .completedGoals(totals.getCompletedGoals())
+                .inProgressGoals(totals.getInProgressGoals())
+                .upcomingDeadlines(totals.getUpcomingDeadlines().intValue())
                 .averageProgress(Math.round(avgProgress * 10) / 10.0)
                 .build();
     }
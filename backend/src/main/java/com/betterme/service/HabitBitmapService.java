@@ -0,0 +1,132 @@
+package com.betterme.service;
+
+import com.betterme.model.HabitYearBitmap;
+import com.betterme.repository.HabitCheckInRepository;
+import com.betterme.repository.HabitRepository;
+import com.betterme.repository.HabitYearBitmapRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Maintains and reads the per-habit check-in bitmaps (habit_year_bitmaps).
+ *
+ * Every check-in sets one bit in the same transaction; reads load a
+ * habit's whole history in one query (46 bytes per year) and answer
+ * streak, calendar and completion questions with bit operations.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HabitBitmapService {
+
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private final HabitYearBitmapRepository bitmapRepository;
+    private final HabitRepository habitRepository;
+    private final HabitCheckInRepository checkInRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // WRITES
+
+    /**
+     * Record a check-in day
+     */
+    @Transactional
+    public void markCheckIn(Long habitId, LocalDate date) {
+        bitmapRepository.setDay(habitId, date.getYear(), date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Record the same check-in day for several habits
+     */
+    @Transactional
+    public void markCheckIns(Collection<Long> habitIds, LocalDate date) {
+        if (!habitIds.isEmpty()) {
+            bitmapRepository.setDayForHabits(habitIds, date.getYear(), date.getDayOfYear() - 1);
+        }
+    }
+
+    /**
+     * Remove a check-in day
+     */
+    @Transactional
+    public void clearCheckIn(Long habitId, LocalDate date) {
+        bitmapRepository.clearDay(habitId, date.getYear(), date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Backfill: rebuild every habit's bitmaps from habit_checkins, a page of
+     * habit ids at a time. Each page commits on its own, so the transaction
+     * and the persistence context never hold more than one page.
+     */
+    public int rebuildAll() {
+        int rows = 0;
+        long afterId = 0;
+        List<Long> habitIds;
+        while (!(habitIds = habitRepository.findIdsAfter(afterId, BACKFILL_PAGE_SIZE)).isEmpty()) {
+            List<Long> page = habitIds;
+            Integer pageRows = transactionTemplate.execute(status -> rebuild(page));
+            rows += pageRows != null ? pageRows : 0;
+            afterId = page.get(page.size() - 1);
+        }
+        log.info("Rebuilt habit check-in bitmaps: {} rows", rows);
+        return rows;
+    }
+
+    private int rebuild(List<Long> habitIds) {
+        bitmapRepository.deleteByHabitIds(habitIds);
+
+        // (habit, year) -> bits
+        Map<Long, Map<Integer, BitSet>> bitsByHabit = new HashMap<>();
+        for (HabitCheckInRepository.HabitDay day : checkInRepository.findHabitDays(habitIds)) {
+            LocalDate date = day.getCheckInDate();
+            bitsByHabit.computeIfAbsent(day.getHabitId(), id -> new HashMap<>())
+                    .computeIfAbsent(date.getYear(), year -> new BitSet())
+                    .set(date.getDayOfYear() - 1);
+        }
+
+        List<HabitYearBitmap> bitmaps = new ArrayList<>();
+        bitsByHabit.forEach((habitId, years) -> years.forEach((year, bits) -> bitmaps.add(HabitYearBitmap.builder()
+                .habit(habitRepository.getReferenceById(habitId))
+                .year(year)
+                .bits(Arrays.copyOf(bits.toByteArray(), HabitYearBitmap.BYTES_PER_YEAR))
+                .build())));
+        bitmapRepository.saveAll(bitmaps);
+        return bitmaps.size();
+    }
+
+    // READS
+
+    /**
+     * Whole check-in history of one habit
+     */
+    public CheckInBitmap load(Long habitId) {
+        return loadAll(List.of(habitId)).getOrDefault(habitId, CheckInBitmap.empty());
+    }
+
+    /**
+     * Whole check-in history of several habits in one query
+     * (habits without any check-in are missing from the map)
+     */
+    public Map<Long, CheckInBitmap> loadAll(Collection<Long> habitIds) {
+        if (habitIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, CheckInBitmap.Builder> builders = new HashMap<>();
+        for (HabitYearBitmapRepository.YearBits row : bitmapRepository.findByHabitIds(habitIds)) {
+            builders.computeIfAbsent(row.getHabitId(), id -> CheckInBitmap.builder())
+                    .addYear(row.getYear(), row.getBits());
+        }
+
+        Map<Long, CheckInBitmap> bitmaps = new HashMap<>();
+        builders.forEach((habitId, builder) -> bitmaps.put(habitId, builder.build()));
+        return bitmaps;
+    }
+}
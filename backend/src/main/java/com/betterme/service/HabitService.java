@@ -1,21 +1,38 @@
 package com.betterme.service;
 
+import com.betterme.dto.BatchCheckInRequest;
+import com.betterme.dto.BatchCheckInResponse;
+import com.betterme.dto.CheckInHistoryPage;
 import com.betterme.dto.HabitRequest;
 import com.betterme.dto.HabitResponse;
+import com.betterme.event.HabitCheckInUndoneEvent;
+import com.betterme.event.HabitCheckedInEvent;
+import com.betterme.model.DeletedCheckIn;
 import com.betterme.model.Habit;
-import com.betterme.model.HabitCheckIn;
 import com.betterme.model.HabitFrequency;
 import com.betterme.model.User;
+import com.betterme.repository.DeletedCheckInRepository;
 import com.betterme.repository.HabitCheckInRepository;
+import com.betterme.repository.HabitCounterRepository.CheckInCounters;
 import com.betterme.repository.HabitRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -25,8 +42,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class HabitService {
 
+    private static final int MAX_HISTORY_PAGE = 100;
+
     private final HabitRepository habitRepository;
     private final HabitCheckInRepository checkInRepository;
+    private final DeletedCheckInRepository deletedCheckInRepository;
+    private final CheckInResolver checkInResolver;
+    private final DailyActivityService dailyActivityService;
+    private final HabitBitmapService habitBitmapService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.check-ins.max-backfill-days:365}")
+    private int maxBackfillDays;
 
     // CRUD OPERATIONS
 
@@ -34,16 +61,8 @@ public class HabitService {
      * Get all habits for the current user
      */
     public List<HabitResponse> getUserHabits(User user) {
-        LocalDate today = LocalDate.now();
-
-        return habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true)
-                .stream()
-                .map(habit -> {
-                    boolean checkedToday = checkInRepository
-                            .existsByHabitAndCheckInDate(habit, today);
-                    return HabitResponse.fromEntity(habit, checkedToday);
-                })
-                .collect(Collectors.toList());
+        List<Habit> habits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
+        return checkInResolver.toResponses(user, habits);
     }
 
     /**
@@ -76,7 +95,8 @@ public class HabitService {
                 .build();
 
         Habit saved = habitRepository.save(habit);
-        log.info("Created habit '{}' for user {}", saved.getName(), user.getEmail());
+        dailyActivityService.refreshActiveHabits(user);
+        log.info("Created habit '{}' for user {}", saved.getName(), user.getId());
 
         return HabitResponse.fromEntity(saved, false);
     }
@@ -119,86 +139,314 @@ public class HabitService {
 
         // Soft delete - just mark as inactive
         habit.setActive(false);
-        habitRepository.save(habit);
+        habitRepository.saveAndFlush(habit);
+        dailyActivityService.archiveHabit(user, habitId);
 
-        log.info("Archived habit '{}' for user {}", habit.getName(), user.getEmail());
+        log.info("Archived habit '{}' for user {}", habit.getName(), user.getId());
     }
 
     // CHECK-IN & STREAK LOGIC
 
     /**
-     * CHECK IN TO A HABIT
+     * CHECK IN TO A HABIT (today)
+     */
+    @Transactional
+    public HabitResponse checkIn(Long habitId, User user, String notes) {
+        return checkIn(habitId, user, LocalDate.now(), notes);
+    }
+
+    /**
+     * CHECK IN TO A HABIT FOR ANY DAY UP TO TODAY
      * This is where the STREAK MAGIC happens!
      * 
      * Logic:
-     * 1. If already checked in today → return existing
-     * 2. Create new check-in record
-     * 3. Update streak:
-     * - If yesterday was checked: streak++
-     * - Else: streak = 1 (starting fresh)
-     * 4. Update longest streak if needed
+     * 1. Insert the check-in if absent (one atomic statement)
+     * → nothing inserted = already checked in, return existing
+     * 2. The day joins the run before it and the run after it
+     * (only that run is scanned, not the whole history)
+     * 3. If the merged run reaches yesterday/today it is the current streak
+     * 4. Counters are updated in one atomic UPDATE
+     * (total + 1, longest = max(longest, run)), never read-modify-write
+     * 5. A HabitCheckedInEvent records the change for linked goals (outbox, same transaction)
+     * 
+     * Double taps and retries are cheap no-ops instead of constraint errors.
      */
     @Transactional
-    public HabitResponse checkIn(Long habitId, User user, String notes) {
+    public HabitResponse checkIn(Long habitId, User user, LocalDate date, String notes) {
+        LocalDate today = LocalDate.now();
+        validateCheckInDate(date, today);
+
+        // Already checked in on that day (or not the user's habit)?
+        if (checkInRepository.insertIfAbsent(habitId, user.getId(), date, notes) == 0) {
+            Habit habit = habitRepository.findByIdAndUser(habitId, user)
+                    .orElseThrow(() -> new RuntimeException("Habit not found"));
+            log.info("Already checked in on {} for habit '{}'", date, habit.getName());
+            return HabitResponse.fromEntity(habit,
+                    date.equals(today) || checkInRepository.existsByHabitAndCheckInDate(habit, today));
+        }
+        dailyActivityService.addCheckIn(user, habitId, date, 1);
+        habitBitmapService.markCheckIn(habitId, date);
+
+        // STREAK CALCULATION
+        // Run of checked days through the new day, read from the bitmap
+        CheckInBitmap history = habitBitmapService.load(habitId);
+        CheckInCounters counters = countersAfterCheckIn(habitId, history, date, today);
+        habitRepository.applyCheckIns(List.of(counters));
+        eventPublisher.publishEvent(new HabitCheckedInEvent(user.getId(), habitId, date, counters.getCurrentStreak()));
+
+        // Read the habit after the update (first load in this transaction)
         Habit habit = habitRepository.findByIdAndUser(habitId, user)
                 .orElseThrow(() -> new RuntimeException("Habit not found"));
 
+        log.info("✅ Checked in on {} for '{}' - Streak: {} 🔥",
+                date, habit.getName(), habit.getCurrentStreak());
+
+        return HabitResponse.fromEntity(habit, history.isChecked(today));
+    }
+
+    /**
+     * UNDO A CHECK-IN
+     * 
+     * Removing a day splits its run in two:
+     * - if the run was the current streak, the part after the day stays current
+     * (or the part before it, when today itself was removed)
+     * - the longest streak is only rescanned when the split run was the longest
+     */
+    @Transactional
+    public HabitResponse undoCheckIn(Long habitId, User user, LocalDate date) {
+        HabitRepository.HabitStreaks streaks = habitRepository.findStreaksByIdAndUser(habitId, user)
+                .orElseThrow(() -> new RuntimeException("Habit not found"));
+
         LocalDate today = LocalDate.now();
+        validateCheckInDate(date, today);
 
-        // Already checked in today?
-        if (checkInRepository.existsByHabitAndCheckInDate(habit, today)) {
-            log.info("Already checked in today for habit '{}'", habit.getName());
-            return HabitResponse.fromEntity(habit, true);
+        CheckInBitmap history = habitBitmapService.load(habitId);
+        if (checkInRepository.deleteByHabitAndCheckInDate(habitRepository.getReferenceById(habitId), date) == 0) {
+            Habit habit = habitRepository.findByIdAndUser(habitId, user)
+                    .orElseThrow(() -> new RuntimeException("Habit not found"));
+            return HabitResponse.fromEntity(habit, history.isChecked(today));
+        }
+        dailyActivityService.addCheckIn(user, habitId, date, -1);
+        habitBitmapService.clearCheckIn(habitId, date);
+        deletedCheckInRepository.save(DeletedCheckIn.builder()
+                .userId(user.getId())
+                .habitId(habitId)
+                .checkInDate(date)
+                .build());
+        eventPublisher.publishEvent(new HabitCheckInUndoneEvent(user.getId(), habitId, date));
+
+        // STREAK CALCULATION (history still contains the removed day)
+        Integer currentStreak = currentStreakAfterUndo(history, date, today);
+
+        // The split run may have been the longest one: rescan only then
+        Integer longestStreak = null;
+        if (splitsLongestRun(history, date, streaks.getLongestStreak())) {
+            longestStreak = habitBitmapService.load(habitId).longestRun();
         }
 
-        // Create check-in record
-        HabitCheckIn checkIn = HabitCheckIn.builder()
-                .habit(habit)
-                .checkInDate(today)
-                .completed(true)
-                .notes(notes)
-                .build();
-        checkInRepository.save(checkIn);
+        // Counters in one atomic UPDATE, like checkIn (never read-modify-write)
+        habitRepository.applyUndo(habitId, user.getId(), currentStreak, longestStreak);
 
-        // STREAK CALCULATION
-        LocalDate yesterday = today.minusDays(1);
-        boolean hadYesterdayCheckIn = checkInRepository
-                .existsByHabitAndCheckInDate(habit, yesterday);
-
-        if (hadYesterdayCheckIn) {
-            // Continuing streak! 🔥
-            habit.setCurrentStreak(habit.getCurrentStreak() + 1);
-        } else {
-            // Starting fresh streak
-            habit.setCurrentStreak(1);
+        // Read the habit after the update (first load in this transaction)
+        Habit habit = habitRepository.findByIdAndUser(habitId, user)
+                .orElseThrow(() -> new RuntimeException("Habit not found"));
+
+        log.info("↩️ Undid check-in on {} for '{}' - Streak: {}",
+                date, habit.getName(), habit.getCurrentStreak());
+
+        return HabitResponse.fromEntity(habit, history.isChecked(today) && !date.equals(today));
+    }
+
+    /**
+     * BATCH CHECK-IN
+     * Same rules as checkIn, for many habits in a fixed number of statements:
+     * ownership and existing check-ins (1 query each), inserts (1 statement),
+     * bitmaps (1 write + 1 read), rollup (1) and counters (1 UPDATE).
+     */
+    @Transactional
+    public BatchCheckInResponse batchCheckIn(BatchCheckInRequest request, User user) {
+        LocalDate today = LocalDate.now();
+        LocalDate date = request.getDate() != null ? request.getDate() : today;
+        validateCheckInDate(date, today);
+
+        // One item per habit, the first one wins
+        Map<Long, BatchCheckInRequest.Item> items = new LinkedHashMap<>();
+        request.getCheckIns().forEach(item -> items.putIfAbsent(item.getHabitId(), item));
+
+        Map<Long, HabitRepository.HabitStreaks> owned = habitRepository
+                .findStreaksByIdInAndUserAndActive(items.keySet(), user, true).stream()
+                .collect(Collectors.toMap(HabitRepository.HabitStreaks::getId, habit -> habit));
+        Set<Long> alreadyChecked = owned.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(checkInRepository.findCheckedInHabitIdsByUser(user, date));
+
+        List<BatchCheckInRequest.Item> toInsert = items.values().stream()
+                .filter(item -> owned.containsKey(item.getHabitId()))
+                .filter(item -> !alreadyChecked.contains(item.getHabitId()))
+                .collect(Collectors.toList());
+        Set<Long> inserted = checkInRepository.insertCheckIns(user.getId(), toInsert, date);
+
+        List<Long> newHabitIds = new ArrayList<>();
+        for (BatchCheckInRequest.Item item : toInsert) {
+            Long habitId = item.getHabitId();
+            if (inserted.contains(habitId)) {
+                newHabitIds.add(habitId);
+            } else {
+                // Checked in concurrently since the exists-query
+                alreadyChecked.add(habitId);
+            }
+        }
+
+        // STREAK CALCULATION (same as checkIn, one bitmap read for all)
+        Map<Long, CheckInCounters> counters = new HashMap<>();
+        if (!newHabitIds.isEmpty()) {
+            dailyActivityService.addCheckIns(user, date, newHabitIds.size());
+            habitBitmapService.markCheckIns(newHabitIds, date);
+
+            Map<Long, CheckInBitmap> histories = habitBitmapService.loadAll(newHabitIds);
+            for (Long habitId : newHabitIds) {
+                CheckInBitmap history = histories.getOrDefault(habitId, CheckInBitmap.empty());
+                counters.put(habitId, countersAfterCheckIn(habitId, history, date, today));
+            }
+            habitRepository.applyCheckIns(new ArrayList<>(counters.values()));
+            counters.values().forEach(counter -> eventPublisher.publishEvent(new HabitCheckedInEvent(
+                    user.getId(), counter.getHabitId(), date, counter.getCurrentStreak())));
         }
 
-        // Update longest streak if current beats it
-        if (habit.getCurrentStreak() > habit.getLongestStreak()) {
-            habit.setLongestStreak(habit.getCurrentStreak());
+        // Per-item results in request order
+        Set<Long> reported = new HashSet<>();
+        List<BatchCheckInResponse.Result> results = new ArrayList<>();
+        for (BatchCheckInRequest.Item item : request.getCheckIns()) {
+            Long habitId = item.getHabitId();
+            HabitRepository.HabitStreaks habit = owned.get(habitId);
+            if (habit == null) {
+                results.add(BatchCheckInResponse.Result.builder()
+                        .habitId(habitId)
+                        .status(BatchCheckInResponse.Status.NOT_FOUND)
+                        .build());
+                continue;
+            }
+
+            CheckInCounters counter = counters.get(habitId);
+            if (counter == null || !reported.add(habitId)) {
+                results.add(BatchCheckInResponse.Result.builder()
+                        .habitId(habitId)
+                        .status(BatchCheckInResponse.Status.ALREADY_CHECKED_IN)
+                        .currentStreak(counter != null && counter.getCurrentStreak() != null
+                                ? counter.getCurrentStreak()
+                                : habit.getCurrentStreak())
+                        .longestStreak(counter != null
+                                ? Math.max(habit.getLongestStreak(), counter.getRun())
+                                : habit.getLongestStreak())
+                        .build());
+                continue;
+            }
+
+            results.add(BatchCheckInResponse.Result.builder()
+                    .habitId(habitId)
+                    .status(BatchCheckInResponse.Status.CHECKED_IN)
+                    .currentStreak(counter.getCurrentStreak() != null
+                            ? counter.getCurrentStreak()
+                            : habit.getCurrentStreak())
+                    .longestStreak(Math.max(habit.getLongestStreak(), counter.getRun()))
+                    .build());
         }
 
-        // Update totals
-        habit.setTotalCheckIns(habit.getTotalCheckIns() + 1);
-        habit.setLastCheckInDate(LocalDateTime.now());
+        log.info("✅ Batch check-in on {} for user {}: {} of {} habits",
+                date, user.getId(), newHabitIds.size(), request.getCheckIns().size());
 
-        habitRepository.save(habit);
+        return BatchCheckInResponse.builder()
+                .date(date)
+                .checkedIn(newHabitIds.size())
+                .results(results)
+                .build();
+    }
 
-        log.info("✅ Checked in for '{}' - Streak: {} 🔥",
-                habit.getName(), habit.getCurrentStreak());
+    /**
+     * Counter changes after a new check-in on date
+     * history already contains the day; only the run through it is scanned.
+     * The run is the current streak when it reaches yesterday or today.
+     */
+    static CheckInCounters countersAfterCheckIn(Long habitId, CheckInBitmap history,
+            LocalDate date, LocalDate today) {
+        int daysAfter = history.runStartingAt(date) - 1;
+        int run = history.runEndingAt(date) + daysAfter;
+        boolean current = !date.plusDays(daysAfter).isBefore(today.minusDays(1));
+        return new CheckInCounters(habitId, run, current ? run : null, date.equals(today));
+    }
 
-        return HabitResponse.fromEntity(habit, true);
+    /**
+     * Current streak after removing the check-in on date (null = unchanged)
+     * history still contains the day. If its run was the current streak,
+     * the part after the day stays current, or the part before it when
+     * today itself was removed.
+     */
+    static Integer currentStreakAfterUndo(CheckInBitmap history, LocalDate date, LocalDate today) {
+        int daysBefore = Math.max(history.runEndingAt(date) - 1, 0);
+        int daysAfter = Math.max(history.runStartingAt(date) - 1, 0);
+        if (date.plusDays(daysAfter).isBefore(today.minusDays(1))) {
+            return null;
+        }
+        return daysAfter > 0 ? daysAfter : date.equals(today) ? daysBefore : 0;
     }
 
     /**
-     * Get check-in history for a habit
+     * Was the run through date (history still contains the day) as long as
+     * the longest streak? Only then can removing the day shorten it.
      */
-    public List<HabitCheckIn> getCheckInHistory(Long habitId, User user, int days) {
+    static boolean splitsLongestRun(CheckInBitmap history, LocalDate date, int longestStreak) {
+        int daysBefore = Math.max(history.runEndingAt(date) - 1, 0);
+        int daysAfter = Math.max(history.runStartingAt(date) - 1, 0);
+        return daysBefore + daysAfter + 1 >= longestStreak;
+    }
+
+    /**
+     * Check-ins (and undos) are allowed from max-backfill-days ago up to today
+     */
+    public boolean isCheckInDateAllowed(LocalDate date, LocalDate today) {
+        return !date.isAfter(today) && !date.isBefore(today.minusDays(maxBackfillDays));
+    }
+
+    private void validateCheckInDate(LocalDate date, LocalDate today) {
+        if (date.isAfter(today)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot check in for a future date");
+        }
+        if (date.isBefore(today.minusDays(maxBackfillDays))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Check-ins can only be logged up to " + maxBackfillDays + " days back");
+        }
+    }
+
+    /**
+     * Get one page of check-in history for a habit, newest first
+     * 
+     * Keyset pagination: "before" is the previous page's last date, so
+     * every page costs the same however deep the client scrolls.
+     * 
+     * @param before Only days before this one (null = from today)
+     * @param days   Optional window: only the last N days
+     * @param limit  Page size (capped at MAX_HISTORY_PAGE)
+     */
+    public CheckInHistoryPage getCheckInHistory(Long habitId, User user,
+            LocalDate before, Integer days, int limit) {
         Habit habit = habitRepository.findByIdAndUser(habitId, user)
                 .orElseThrow(() -> new RuntimeException("Habit not found"));
 
-        LocalDate startDate = LocalDate.now().minusDays(days);
-        return checkInRepository.findRecentCheckIns(habit, startDate);
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE));
+        LocalDate cursor = before != null ? before : LocalDate.now().plusDays(1);
+        LocalDate from = days != null ? LocalDate.now().minusDays(days) : LocalDate.EPOCH;
+
+        // One extra row tells whether there is a next page
+        List<HabitCheckInRepository.HistoryEntry> rows = checkInRepository
+                .findHistoryPage(habit, cursor, from, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<HabitCheckInRepository.HistoryEntry> page = hasMore ? rows.subList(0, size) : rows;
+
+        return CheckInHistoryPage.builder()
+                .checkIns(page)
+                .hasMore(hasMore)
+                .nextBefore(hasMore ? page.get(size - 1).getCheckInDate() : null)
+                .build();
     }
 
     // STATS & ANALYTICS
@@ -207,13 +455,10 @@ public class HabitService {
      * Get habit statistics for a user
      */
     public HabitStats getUserStats(User user) {
-        long totalHabits = habitRepository.countByUserAndActive(user, true);
         List<Habit> habits = habitRepository.findByUserAndActiveOrderByCreatedAtDesc(user, true);
+        long totalHabits = habits.size();
 
-        LocalDate today = LocalDate.now();
-        long completedToday = habits.stream()
-                .filter(h -> checkInRepository.existsByHabitAndCheckInDate(h, today))
-                .count();
+        long completedToday = checkInResolver.checkedInToday(user, habits).size();
 
         int totalStreak = habits.stream()
                 .mapToInt(Habit::getCurrentStreak)
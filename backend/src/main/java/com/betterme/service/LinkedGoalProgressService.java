@@ -0,0 +1,232 @@
+package com.betterme.service;
+
+import com.betterme.event.HabitCheckInUndoneEvent;
+import com.betterme.event.HabitCheckedInEvent;
+import com.betterme.repository.GoalProgressRepository.CompletedGoal;
+import com.betterme.repository.GoalProgressRepository.LinkedHabitChange;
+import com.betterme.repository.GoalProgressRepository.LinkedHabitProgress;
+import com.betterme.repository.GoalRepository;
+import com.betterme.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HABIT-LINKED GOAL PROGRESS
+ *
+ * Check-ins advance the goals linked to their habit without touching the
+ * check-in request's goal rows: each check-in or undo is written to the
+ * goal_progress_outbox table IN the check-in transaction (one insert per
+ * transaction, just before commit), so it exists exactly when the
+ * check-in does. A background flush takes outbox rows, folds them into
+ * one row per habit and applies them with ONE atomic UPDATE on goals.
+ * Goals that reach their target are completed in the same statement and
+ * get a notification.
+ *
+ * Taking the rows deletes them in the same transaction as the UPDATE and
+ * the notifications, so every change is applied exactly once, survives a
+ * crash, and several instances can flush at the same time (SKIP LOCKED).
+ * When a batch fails its changes are retried one by one; a change that
+ * fails max-attempts times is parked in the outbox (attempts, last_error)
+ * and no longer blocks the others.
+ *
+ * Metrics (see /actuator/metrics):
+ * - betterme.goal.progress.queued - changes waiting in the outbox (as of the last flush)
+ * - betterme.goal.progress.parked - changes given up on after max-attempts
+ * - betterme.goal.progress.goals.completed - goals completed by check-ins
+ */
+@Service
+@Slf4j
+public class LinkedGoalProgressService {
+
+    private final GoalRepository goalRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.goal-progress.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.goal-progress.max-attempts:5}")
+    private int maxAttempts;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter parkedCounter;
+    private final Counter goalsCompletedCounter;
+
+    public LinkedGoalProgressService(GoalRepository goalRepository, UserRepository userRepository,
+            NotificationService notificationService, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.goalRepository = goalRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parkedCounter = meterRegistry.counter("betterme.goal.progress.parked");
+        this.goalsCompletedCounter = meterRegistry.counter("betterme.goal.progress.goals.completed");
+        Gauge.builder("betterme.goal.progress.queued", queued, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    // EVENTS (called inside the check-in transaction)
+
+    @EventListener
+    public void onCheckedIn(HabitCheckedInEvent event) {
+        record(new LinkedHabitChange(null, event.getHabitId(), 1, event.getCurrentStreak()));
+    }
+
+    @EventListener
+    public void onCheckInUndone(HabitCheckInUndoneEvent event) {
+        record(new LinkedHabitChange(null, event.getHabitId(), -1, null));
+    }
+
+    /**
+     * Collect the transaction's changes and write them with one insert
+     * before it commits (a batch check-in publishes one event per habit)
+     */
+    @SuppressWarnings("unchecked")
+    private void record(LinkedHabitChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            goalRepository.recordLinkedHabitChanges(List.of(change));
+            return;
+        }
+
+        List<LinkedHabitChange> changes = (List<LinkedHabitChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<LinkedHabitChange> transactionChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    goalRepository.recordLinkedHabitChanges(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LinkedGoalProgressService.this);
+                }
+            });
+            changes = transactionChanges;
+        }
+        changes.add(change);
+    }
+
+    // FLUSH
+
+    @Scheduled(fixedDelayString = "${app.goal-progress.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Apply everything in the outbox, batchSize changes per UPDATE
+     *
+     * @return number of goals completed
+     */
+    public synchronized int flush() {
+        int completed = 0;
+        try {
+            while (true) {
+                List<Long> claimed = new ArrayList<>();
+                Integer batchCompleted;
+                try {
+                    batchCompleted = transactionTemplate.execute(status -> {
+                        List<LinkedHabitChange> batch = goalRepository.claimLinkedHabitChanges(batchSize, maxAttempts);
+                        batch.forEach(change -> claimed.add(change.getId()));
+                        return batch.isEmpty() ? null : apply(batch);
+                    });
+                } catch (Exception e) {
+                    // Rolled back: the changes are back in the outbox, find the one(s) failing
+                    log.error("Goal progress flush failed for {} changes, retrying them one by one: {}",
+                            claimed.size(), e.getMessage());
+                    return completed + retryOneByOne(claimed);
+                }
+                if (batchCompleted == null) {
+                    return completed;
+                }
+                completed += batchCompleted;
+            }
+        } finally {
+            try {
+                queued.set(goalRepository.countPendingLinkedHabitChanges(maxAttempts));
+            } catch (Exception e) {
+                log.warn("Could not count pending goal progress: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int retryOneByOne(List<Long> ids) {
+        int completed = 0;
+        for (Long id : ids) {
+            try {
+                Integer changeCompleted = transactionTemplate.execute(status -> {
+                    List<LinkedHabitChange> change = goalRepository.claimLinkedHabitChange(id, maxAttempts);
+                    return change.isEmpty() ? 0 : apply(change);
+                });
+                completed += changeCompleted != null ? changeCompleted : 0;
+            } catch (Exception e) {
+                int attempts = goalRepository.recordLinkedHabitChangeFailure(id, e.getMessage());
+                if (attempts >= maxAttempts) {
+                    log.error("Goal progress change {} failed {} times, parked in goal_progress_outbox: {}",
+                            id, attempts, e.getMessage());
+                    parkedCounter.increment();
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * @return number of goals completed
+     */
+    private int apply(List<LinkedHabitChange> batch) {
+        List<CompletedGoal> completedGoals = goalRepository.applyLinkedHabitProgress(fold(batch));
+        for (CompletedGoal goal : completedGoals) {
+            log.info("🎉 Goal '{}' completed by check-ins!", goal.getTitle());
+            notificationService.notifyGoalCompleted(userRepository.getReferenceById(goal.getUserId()), goal.getTitle());
+        }
+        goalsCompletedCounter.increment(completedGoals.size());
+        return completedGoals.size();
+    }
+
+    private List<LinkedHabitProgress> fold(List<LinkedHabitChange> batch) {
+        // One row per habit: net check-ins and best streak seen
+        Map<Long, int[]> checkIns = new LinkedHashMap<>();
+        Map<Long, Integer> streaks = new LinkedHashMap<>();
+        for (LinkedHabitChange change : batch) {
+            checkIns.computeIfAbsent(change.getHabitId(), id -> new int[1])[0] += change.getDelta();
+            if (change.getStreak() != null) {
+                streaks.merge(change.getHabitId(), change.getStreak(), Math::max);
+            }
+        }
+
+        List<LinkedHabitProgress> updates = new ArrayList<>(checkIns.size());
+        checkIns.forEach((habitId, delta) -> {
+            Integer streak = streaks.get(habitId);
+            if (delta[0] != 0 || streak != null) {
+                updates.add(new LinkedHabitProgress(habitId, delta[0], streak));
+            }
+        });
+        return updates;
+    }
+}
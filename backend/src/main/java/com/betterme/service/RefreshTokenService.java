@@ -0,0 +1,106 @@
+package com.betterme.service;
+
+import com.betterme.model.User;
+import com.betterme.model.VerificationToken;
+import com.betterme.model.VerificationToken.TokenType;
+import com.betterme.repository.VerificationTokenRepository;
+import com.betterme.security.TokenHashes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * ROTATING REFRESH TOKENS
+ *
+ * Refresh tokens are random strings stored in verification_tokens
+ * (type REFRESH) as their SHA-256 only. Each one works once: using it
+ * returns a new one. Presenting an already used token means it was
+ * copied, so all of the user's refresh tokens are revoked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final VerificationTokenRepository tokenRepository;
+
+    @Value("${jwt.refresh-expiration-days:30}")
+    private long refreshExpirationDays;
+
+    /**
+     * Issue a new refresh token for a user
+     */
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        tokenRepository.save(VerificationToken.builder()
+                .token(TokenHashes.sha256(token))
+                .user(user)
+                .tokenType(TokenType.REFRESH)
+                .expiryDate(LocalDateTime.now().plusDays(refreshExpirationDays))
+                .build());
+        return token;
+    }
+
+    /**
+     * Use a refresh token (once)
+     *
+     * @return its user, empty if the token is unknown, expired or already used
+     */
+    @Transactional
+    public Optional<User> consume(String token) {
+        Optional<VerificationToken> stored = tokenRepository.findByTokenAndTokenType(
+                TokenHashes.sha256(token), TokenType.REFRESH);
+        if (stored.isEmpty() || stored.get().isExpired()) {
+            return Optional.empty();
+        }
+
+        User user = stored.get().getUser();
+        // Atomic: of two concurrent uses, only one wins
+        if (tokenRepository.markUsed(stored.get().getId()) == 0) {
+            log.warn("Refresh token reused for user {}, revoking all sessions", user.getId());
+            revokeAll(user);
+            return Optional.empty();
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Revoke one refresh token (logout)
+     */
+    @Transactional
+    public void revoke(String token) {
+        tokenRepository.findByTokenAndTokenType(TokenHashes.sha256(token), TokenType.REFRESH)
+                .ifPresent(tokenRepository::delete);
+    }
+
+    /**
+     * Revoke every refresh token of a user (password change / reset, reuse)
+     */
+    @Transactional
+    public void revokeAll(User user) {
+        tokenRepository.deleteByUserAndTokenType(user, TokenType.REFRESH);
+    }
+
+    /**
+     * Purge expired tokens of every type (used refresh tokens are kept
+     * until then so a replay is still recognised as reuse)
+     */
+    @Scheduled(cron = "${app.refresh-tokens.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        tokenRepository.deleteExpiredTokens(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,152 @@
+package com.betterme.service;
+
+import com.betterme.repository.HabitRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NIGHTLY STREAK DECAY
+ *
+ * currentStreak only changes on check-in, so a habit missed yesterday would
+ * keep showing its old streak. This job resets every broken streak in bulk:
+ * the user-id range is split into partitions, and each partition is one
+ * set-based UPDATE run on a small fixed pool (parallelism = max DB
+ * connections the job may hold at once).
+ *
+ * Metrics (see /actuator/metrics):
+ * - betterme.streak.decay.habits.reset - streaks reset (counter)
+ * - betterme.streak.decay.partitions.done / .total - progress of the current run
+ * - betterme.streak.decay.duration - run time
+ */
+@Service
+@Slf4j
+public class StreakDecayService {
+
+    private final HabitRepository habitRepository;
+
+    @Value("${app.streak-decay.partition-size:10000}")
+    private long partitionSize;
+
+    @Value("${app.streak-decay.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger partitionsDone = new AtomicInteger();
+    private final AtomicInteger partitionsTotal = new AtomicInteger();
+    private final Counter habitsResetCounter;
+    private final Timer runTimer;
+
+    public StreakDecayService(HabitRepository habitRepository, MeterRegistry meterRegistry) {
+        this.habitRepository = habitRepository;
+        this.habitsResetCounter = meterRegistry.counter("betterme.streak.decay.habits.reset");
+        this.runTimer = meterRegistry.timer("betterme.streak.decay.duration");
+        Gauge.builder("betterme.streak.decay.partitions.done", partitionsDone, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("betterme.streak.decay.partitions.total", partitionsTotal, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs shortly after midnight (server time) by default
+     */
+    @Scheduled(cron = "${app.streak-decay.cron:0 5 0 * * *}")
+    public void decayBrokenStreaks() {
+        decay(LocalDate.now());
+    }
+
+    /**
+     * Reset every streak that has no check-in on or after yesterday
+     *
+     * @return number of habits whose streak was reset
+     */
+    public long decay(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Streak decay already running, skipping");
+            return 0;
+        }
+        try {
+            return runTimer.recordCallable(() -> runPartitions(today.minusDays(1)));
+        } catch (Exception e) {
+            log.error("Streak decay failed", e);
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long runPartitions(LocalDate lastValidDay) throws InterruptedException {
+        Long minUserId = habitRepository.findMinUserIdWithStreak();
+        Long maxUserId = habitRepository.findMaxUserIdWithStreak();
+        if (minUserId == null || maxUserId == null) {
+            log.info("Streak decay: no running streaks");
+            return 0;
+        }
+
+        int total = (int) ((maxUserId - minUserId) / partitionSize) + 1;
+        partitionsDone.set(0);
+        partitionsTotal.set(total);
+        log.info("🔥 Streak decay: users {}..{} in {} partitions, {} threads",
+                minUserId, maxUserId, total, parallelism);
+
+        AtomicLong reset = new AtomicLong();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (long start = minUserId; start <= maxUserId; start += partitionSize) {
+                long from = start;
+                long to = Math.min(start + partitionSize - 1, maxUserId);
+                futures.add(pool.submit(() -> runPartition(from, to, lastValidDay, reset, failed)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // runPartition handles its own errors, this is unexpected
+                    log.error("Streak decay partition crashed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        log.info("🔥 Streak decay done: {} streaks reset, {}/{} partitions failed",
+                reset.get(), failed.get(), total);
+        return reset.get();
+    }
+
+    private void runPartition(long fromUserId, long toUserId, LocalDate lastValidDay,
+            AtomicLong reset, AtomicInteger failed) {
+        try {
+            int rows = habitRepository.resetBrokenStreaks(fromUserId, toUserId, lastValidDay);
+            reset.addAndGet(rows);
+            habitsResetCounter.increment(rows);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Streak decay failed for users {}..{}: {}", fromUserId, toUserId, e.getMessage());
+        }
+
+        int done = partitionsDone.incrementAndGet();
+        int total = partitionsTotal.get();
+        if (done == total || done % Math.max(1, total / 10) == 0) {
+            log.info("Streak decay progress: {}/{} partitions, {} streaks reset", done, total, reset.get());
+        }
+    }
+}
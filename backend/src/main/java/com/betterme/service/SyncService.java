@@ -0,0 +1,162 @@
+package com.betterme.service;
+
+import com.betterme.dto.BatchCheckInRequest;
+import com.betterme.dto.BatchCheckInResponse;
+import com.betterme.dto.DeletedCheckInResponse;
+import com.betterme.dto.GoalResponse;
+import com.betterme.dto.NotificationResponse;
+import com.betterme.dto.SyncRequest;
+import com.betterme.dto.SyncResponse;
+import com.betterme.model.User;
+import com.betterme.repository.DeletedCheckInRepository;
+import com.betterme.repository.GoalRepository;
+import com.betterme.repository.HabitCheckInRepository;
+import com.betterme.repository.HabitRepository;
+import com.betterme.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * DELTA SYNC for offline-first clients
+ *
+ * Every synced row carries change_seq, the id of the transaction that last
+ * wrote it (set by a database trigger, see V10). The cursor is the xmin of
+ * the database snapshot at the start of a sync: all transactions below it
+ * have finished and are visible to this sync, so the next sync returns
+ * rows with change_seq >= cursor, plus tombstones for undone check-ins.
+ * Neither the application clock nor long-running transactions can make a
+ * row fall between two syncs; rows committed during a sync may come twice
+ * (clients upsert by id).
+ *
+ * Every check-in change also updates its habit row, so counters and
+ * streaks come along with the habit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncService {
+
+    private static final long EVERYTHING = 0;
+
+    private final HabitService habitService;
+    private final CheckInResolver checkInResolver;
+    private final HabitRepository habitRepository;
+    private final HabitCheckInRepository checkInRepository;
+    private final DeletedCheckInRepository deletedCheckInRepository;
+    private final GoalRepository goalRepository;
+    private final NotificationRepository notificationRepository;
+
+    /**
+     * How long tombstones are kept; cursors that may have missed a purged
+     * tombstone get a full resync
+     */
+    @Value("${app.sync.retention-days:90}")
+    private int retentionDays;
+
+    /**
+     * Upload queued offline check-ins, then return changes since the cursor
+     */
+    @Transactional
+    public SyncResponse sync(SyncRequest request, User user) {
+        long cursor = deletedCheckInRepository.currentChangeWatermark();
+        List<BatchCheckInResponse.Result> uploaded = upload(request.getCheckIns(), user);
+
+        Long since = request.getSince();
+        boolean fullResync = since == null || since <= deletedCheckInRepository.purgeHorizon();
+        long from = fullResync ? EVERYTHING : since;
+
+        List<GoalResponse> goals = goalRepository.findChangedSince(user, from).stream()
+                .map(GoalResponse::fromEntity)
+                .collect(Collectors.toList());
+
+        return SyncResponse.builder()
+                .cursor(cursor)
+                .fullResync(fullResync)
+                .habits(checkInResolver.toResponses(user,
+                        habitRepository.findByUserAndChangeSeqGreaterThanEqual(user, from)))
+                .checkIns(checkInRepository.findChangedSince(user, from))
+                .deletedCheckIns(fullResync
+                        ? List.of()
+                        : deletedCheckInRepository
+                                .findByUserIdAndChangeSeqGreaterThanEqualOrderByChangeSeq(user.getId(), from)
+                                .stream().map(DeletedCheckInResponse::fromEntity).collect(Collectors.toList()))
+                .goals(goals)
+                .notifications(notificationRepository.findByUserAndChangeSeqGreaterThanEqualOrderByCreatedAtDesc(
+                        user, from)
+                        .stream().map(NotificationResponse::fromEntity).collect(Collectors.toList()))
+                .unreadNotifications(notificationRepository.countByUserAndReadFalse(user))
+                .uploaded(uploaded)
+                .build();
+    }
+
+    /**
+     * Offline check-ins go through the idempotent batch check-in, one batch
+     * per day, so re-sending the same queue is a no-op.
+     */
+    private List<BatchCheckInResponse.Result> upload(List<SyncRequest.OfflineCheckIn> checkIns, User user) {
+        if (checkIns == null || checkIns.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, List<BatchCheckInRequest.Item>> byDate = new TreeMap<>();
+        for (SyncRequest.OfflineCheckIn checkIn : checkIns) {
+            if (habitService.isCheckInDateAllowed(checkIn.getDate(), today)) {
+                byDate.computeIfAbsent(checkIn.getDate(), date -> new ArrayList<>())
+                        .add(new BatchCheckInRequest.Item(checkIn.getHabitId(), checkIn.getNotes()));
+            }
+        }
+
+        Map<LocalDate, Iterator<BatchCheckInResponse.Result>> resultsByDate = new HashMap<>();
+        byDate.forEach((date, items) -> resultsByDate.put(date, habitService
+                .batchCheckIn(new BatchCheckInRequest(date, items), user)
+                .getResults().iterator()));
+
+        // Back to upload order
+        List<BatchCheckInResponse.Result> results = new ArrayList<>(checkIns.size());
+        for (SyncRequest.OfflineCheckIn checkIn : checkIns) {
+            if (!habitService.isCheckInDateAllowed(checkIn.getDate(), today)) {
+                results.add(BatchCheckInResponse.Result.builder()
+                        .habitId(checkIn.getHabitId())
+                        .status(BatchCheckInResponse.Status.INVALID_DATE)
+                        .build());
+            } else {
+                results.add(resultsByDate.get(checkIn.getDate()).next());
+            }
+        }
+
+        log.info("📲 Synced {} offline check-ins for user {}", checkIns.size(), user.getId());
+        return results;
+    }
+
+    /**
+     * Drop tombstones older than the retention window (nightly), raising the
+     * purge horizon first so cursors that may have missed them resync fully
+     */
+    @Scheduled(cron = "${app.sync.purge-cron:0 30 0 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Long purgedThrough = deletedCheckInRepository.maxChangeSeqBefore(cutoff);
+        if (purgedThrough == null) {
+            return;
+        }
+        deletedCheckInRepository.raisePurgeHorizon(purgedThrough);
+        int purged = deletedCheckInRepository.deleteOlderThan(cutoff);
+        log.info("Purged {} check-in tombstones", purged);
+    }
+}
@@ -1,10 +1,12 @@
 package com.betterme.service;
 
+import com.betterme.dto.AuthResponse;
 import com.betterme.dto.PasswordChangeRequest;
 import com.betterme.dto.ProfileUpdateRequest;
 import com.betterme.dto.UserProfileResponse;
 import com.betterme.model.User;
 import com.betterme.repository.UserRepository;
+import com.betterme.security.AuthUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,11 +18,30 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthService authService;
+
+    /**
+     * JPA reference to the authenticated user, no query
+     * Enough for repository lookups and for linking new rows; the user row
+     * is only loaded if something reads a field other than the id.
+     */
+    public User reference(AuthUser user) {
+        return userRepository.getReferenceById(user.getId());
+    }
 
     /**
      * Get user profile information
      */
-    public UserProfileResponse getProfile(User user) {
+    public UserProfileResponse getProfile(AuthUser user) {
+        return toProfile(load(user));
+    }
+
+    private User load(AuthUser user) {
+        return userRepository.findById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private UserProfileResponse toProfile(User user) {
         return UserProfileResponse.builder()
                 .id(user.getId())
                 .name(user.getName())
@@ -34,19 +55,23 @@ public class UserService {
      * Update user name
      */
     @Transactional
-    public UserProfileResponse updateProfile(User user, ProfileUpdateRequest request) {
+    public UserProfileResponse updateProfile(AuthUser principal, ProfileUpdateRequest request) {
+        User user = load(principal);
         if (request.getName() != null && !request.getName().isBlank()) {
             user.setName(request.getName());
         }
         User saved = userRepository.save(user);
-        return getProfile(saved);
+        return toProfile(saved);
     }
 
     /**
      * Change password with verification
+     * Ends every session, the caller's included, and returns a new token
+     * pair so the caller stays logged in.
      */
     @Transactional
-    public void changePassword(User user, PasswordChangeRequest request) {
+    public AuthResponse changePassword(AuthUser principal, PasswordChangeRequest request) {
+        User user = load(principal);
         // Verify current password
         if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Current password is incorrect");
@@ -60,25 +85,28 @@ public class UserService {
         // Update password
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        return authService.renewSessions(user, "Password changed successfully");
     }
 
     /**
      * Upload/update profile picture (Base64)
      */
     @Transactional
-    public UserProfileResponse updateAvatar(User user, String avatarBase64) {
+    public UserProfileResponse updateAvatar(AuthUser principal, String avatarBase64) {
+        User user = load(principal);
         user.setProfilePicture(avatarBase64);
         User saved = userRepository.save(user);
-        return getProfile(saved);
+        return toProfile(saved);
     }
 
     /**
      * Remove profile picture
      */
     @Transactional
-    public UserProfileResponse removeAvatar(User user) {
+    public UserProfileResponse removeAvatar(AuthUser principal) {
+        User user = load(principal);
         user.setProfilePicture(null);
         User saved = userRepository.save(user);
-        return getProfile(saved);
+        return toProfile(saved);
     }
 }
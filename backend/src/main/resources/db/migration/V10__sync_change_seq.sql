@@ -0,0 +1,52 @@
+-- Delta sync cursor: the id of the transaction that last wrote a row.
+-- Timestamps do not work as a cursor: now() is the transaction start (a
+-- long transaction commits rows older than a sync that already ran) and
+-- JPA-stamped columns come from the application clock. A sync returns
+-- rows with change_seq >= its cursor, the xmin of its snapshot: every
+-- transaction below it has finished, every one at or above it is picked
+-- up by the next sync. Rows written before this migration have 0 and
+-- only come with a full resync.
+CREATE OR REPLACE FUNCTION set_change_seq() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE habits ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE habit_checkins ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE goals ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE notifications ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE deleted_checkins ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+-- habit_checkins is partitioned: the trigger applies to every partition,
+-- including ones CheckInPartitionService creates later
+CREATE TRIGGER trg_habits_change_seq BEFORE INSERT OR UPDATE ON habits
+    FOR EACH ROW EXECUTE FUNCTION set_change_seq();
+CREATE TRIGGER trg_habit_checkins_change_seq BEFORE INSERT OR UPDATE ON habit_checkins
+    FOR EACH ROW EXECUTE FUNCTION set_change_seq();
+CREATE TRIGGER trg_goals_change_seq BEFORE INSERT OR UPDATE ON goals
+    FOR EACH ROW EXECUTE FUNCTION set_change_seq();
+CREATE TRIGGER trg_notifications_change_seq BEFORE INSERT OR UPDATE ON notifications
+    FOR EACH ROW EXECUTE FUNCTION set_change_seq();
+CREATE TRIGGER trg_deleted_checkins_change_seq BEFORE INSERT OR UPDATE ON deleted_checkins
+    FOR EACH ROW EXECUTE FUNCTION set_change_seq();
+
+-- Delta sync reads: changed since the cursor, per user
+CREATE INDEX idx_habits_user_change_seq ON habits (user_id, change_seq);
+CREATE INDEX idx_habit_checkins_user_change_seq ON habit_checkins (user_id, change_seq);
+CREATE INDEX idx_goals_user_change_seq ON goals (user_id, change_seq);
+CREATE INDEX idx_notifications_user_change_seq ON notifications (user_id, change_seq);
+CREATE INDEX idx_deleted_checkins_user_change_seq ON deleted_checkins (user_id, change_seq);
+
+-- The timestamp cursor indexes were only used by delta sync
+DROP INDEX IF EXISTS idx_habits_user_updated;
+DROP INDEX IF EXISTS idx_habit_checkins_habit_created;
+DROP INDEX IF EXISTS idx_goals_user_updated;
+
+-- Highest change_seq of a purged tombstone: cursors at or below it may
+-- have missed an undo and get a full resync
+CREATE TABLE sync_purge_horizon (
+    id             SMALLINT PRIMARY KEY CHECK (id = 1),
+    purged_through BIGINT   NOT NULL
+);
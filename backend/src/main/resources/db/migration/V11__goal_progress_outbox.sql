@@ -0,0 +1,13 @@
+-- Linked-goal progress outbox: check-in and undo events are written in
+-- the check-in transaction and applied to goals by LinkedGoalProgressService,
+-- which deletes the rows it applies in the same transaction. Rows that
+-- keep failing stay here once attempts reaches app.goal-progress.max-attempts.
+CREATE TABLE goal_progress_outbox (
+    id         BIGSERIAL    PRIMARY KEY,
+    habit_id   BIGINT       NOT NULL,
+    delta      INT          NOT NULL,
+    streak     INT,
+    attempts   INT          NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT now()
+);
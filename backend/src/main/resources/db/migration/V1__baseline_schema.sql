@@ -0,0 +1,97 @@
+-- Baseline: the schema as Hibernate (ddl-auto: update) created it before
+-- migrations were introduced. Existing databases are baselined at this
+-- version and skip this script, so it must not contain anything newer:
+-- later tables go in later versions.
+
+CREATE TABLE users (
+    id              BIGSERIAL    NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL UNIQUE,
+    password        VARCHAR(255) NOT NULL,
+    role            VARCHAR(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    profile_picture TEXT,
+    email_verified  BOOLEAN DEFAULT FALSE,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE habits (
+    id                BIGSERIAL    NOT NULL,
+    user_id           BIGINT       NOT NULL,
+    name              VARCHAR(255) NOT NULL,
+    description       VARCHAR(255),
+    frequency         VARCHAR(255) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY', 'WEEKDAYS', 'CUSTOM')),
+    target            VARCHAR(255),
+    icon              VARCHAR(255),
+    current_streak    INTEGER,
+    longest_streak    INTEGER,
+    total_checkins    INTEGER,
+    last_checkin_date TIMESTAMP(6),
+    active            BOOLEAN,
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE habit_checkins (
+    id           BIGSERIAL NOT NULL,
+    habit_id     BIGINT    NOT NULL,
+    checkin_date DATE      NOT NULL,
+    completed    BOOLEAN,
+    notes        VARCHAR(500),
+    created_at   TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_habit_checkin_date UNIQUE (habit_id, checkin_date)
+);
+
+CREATE TABLE goals (
+    id              BIGSERIAL    NOT NULL,
+    user_id         BIGINT       NOT NULL,
+    linked_habit_id BIGINT,
+    title           VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    type            VARCHAR(255) NOT NULL CHECK (type IN ('COUNT', 'STREAK', 'DURATION', 'HABIT_LINK')),
+    icon            VARCHAR(255),
+    category        VARCHAR(255),
+    target_value    INTEGER      NOT NULL,
+    current_value   INTEGER,
+    unit            VARCHAR(255),
+    start_date      DATE,
+    deadline        DATE,
+    completed_at    TIMESTAMP(6),
+    active          BOOLEAN,
+    completed       BOOLEAN,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notifications (
+    id         BIGSERIAL    NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    message    VARCHAR(255) NOT NULL,
+    type       VARCHAR(255) NOT NULL CHECK (type IN ('STREAK', 'GOAL', 'ACHIEVEMENT', 'REMINDER', 'SYSTEM')),
+    is_read    BOOLEAN,
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE verification_tokens (
+    id          BIGSERIAL    NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    token       VARCHAR(255) NOT NULL UNIQUE,
+    token_type  VARCHAR(255) NOT NULL CHECK (token_type IN ('EMAIL_VERIFICATION', 'PASSWORD_RESET')),
+    expiry_date TIMESTAMP(6) NOT NULL,
+    used        BOOLEAN,
+    created_at  TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+-- Foreign keys (names as generated by Hibernate)
+ALTER TABLE habits ADD CONSTRAINT FKg3n2qqwmsyv3517xdcosouk9i FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE habit_checkins ADD CONSTRAINT FK58amnre0jbfmqwb7u2f8fwa50 FOREIGN KEY (habit_id) REFERENCES habits;
+ALTER TABLE goals ADD CONSTRAINT FKb1mp6ulyqkpcw6bc1a2mr7v1g FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE goals ADD CONSTRAINT FKmv7w6v2pjla7kktuoaqqe88pc FOREIGN KEY (linked_habit_id) REFERENCES habits;
+ALTER TABLE notifications ADD CONSTRAINT FK9y21adhxn0ayjhfocscqox7bh FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE verification_tokens ADD CONSTRAINT FK54y8mqsnq1rtyf581sfmrbp4f FOREIGN KEY (user_id) REFERENCES users;
@@ -0,0 +1,36 @@
+-- Tables added after the baseline: daily activity rollup, per-habit
+-- check-in bitmaps and undo tombstones for delta sync.
+-- IF NOT EXISTS: databases that ran with ddl-auto: update may already have them.
+
+CREATE TABLE IF NOT EXISTS daily_activity (
+    id                 BIGSERIAL NOT NULL,
+    user_id            BIGINT    NOT NULL,
+    activity_date      DATE      NOT NULL,
+    checkin_count      INTEGER   NOT NULL,
+    active_habit_count INTEGER   NOT NULL,
+    updated_at         TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_daily_activity_user_date UNIQUE (user_id, activity_date),
+    CONSTRAINT FKc7ham5oaeotdd1rxj13698508 FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS habit_year_bitmaps (
+    id          BIGSERIAL NOT NULL,
+    habit_id    BIGINT    NOT NULL,
+    bitmap_year INTEGER   NOT NULL,
+    bits        BYTEA     NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_habit_bitmap_year UNIQUE (habit_id, bitmap_year),
+    CONSTRAINT FKbahw27q7j7jl0lwd88asn8sw4 FOREIGN KEY (habit_id) REFERENCES habits
+);
+
+CREATE TABLE IF NOT EXISTS deleted_checkins (
+    id           BIGSERIAL    NOT NULL,
+    user_id      BIGINT       NOT NULL,
+    habit_id     BIGINT       NOT NULL,
+    checkin_date DATE         NOT NULL,
+    deleted_at   TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_deleted_checkins_user_deleted ON deleted_checkins (user_id, deleted_at);
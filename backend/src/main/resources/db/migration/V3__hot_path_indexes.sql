@@ -0,0 +1,36 @@
+-- Indexes for the real access paths (until now only PKs and unique keys existed).
+-- IF NOT EXISTS: safe on databases where an index was added by hand.
+
+-- Habits page, stats, counts: findByUserAndActiveOrderByCreatedAtDesc, countByUserAndActive
+CREATE INDEX IF NOT EXISTS idx_habits_user_active_created ON habits (user_id, active, created_at DESC);
+
+-- Delta sync: habits changed since the cursor
+CREATE INDEX IF NOT EXISTS idx_habits_user_updated ON habits (user_id, updated_at);
+
+-- Nightly streak decay: only habits with a running streak
+CREATE INDEX IF NOT EXISTS idx_habits_running_streak ON habits (user_id) WHERE current_streak > 0;
+
+-- Delta sync: check-ins created since the cursor, per habit
+-- (per-day lookups use uk_habit_checkin_date)
+CREATE INDEX IF NOT EXISTS idx_habit_checkins_habit_created ON habit_checkins (habit_id, created_at);
+
+-- Goals page and counts: findByUserAndActiveOrderByCreatedAtDesc, countByUserAndActiveAndCompleted
+CREATE INDEX IF NOT EXISTS idx_goals_user_active_created ON goals (user_id, active, created_at DESC);
+
+-- Delta sync: goals changed since the cursor
+CREATE INDEX IF NOT EXISTS idx_goals_user_updated ON goals (user_id, updated_at);
+
+-- Goals linked to a habit (check-in progress, habit FK)
+CREATE INDEX IF NOT EXISTS idx_goals_linked_habit ON goals (linked_habit_id) WHERE linked_habit_id IS NOT NULL;
+
+-- Unread list and badge count: findByUserAndReadFalseOrderByCreatedAtDesc, countByUserAndReadFalse
+CREATE INDEX IF NOT EXISTS idx_notifications_user_read_created ON notifications (user_id, is_read, created_at DESC);
+
+-- Full list and delta sync: findByUserOrderByCreatedAtDesc, created since the cursor
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at DESC);
+
+-- Expired token cleanup: deleteExpiredTokens
+CREATE INDEX IF NOT EXISTS idx_verification_tokens_expiry ON verification_tokens (expiry_date);
+
+-- Token reissue: findByUserAndTokenTypeAndUsedFalse, deleteByUserAndTokenType
+CREATE INDEX IF NOT EXISTS idx_verification_tokens_user_type ON verification_tokens (user_id, token_type);
@@ -0,0 +1,84 @@
+-- Range-partition habit_checkins by month (checkin_date).
+--
+-- Postgres requires the partition key in every unique constraint, so the
+-- primary key becomes (id, checkin_date); uk_habit_checkin_date already
+-- contains it. Ids keep coming from the same sequence, so the JPA mapping
+-- (@Id id, IDENTITY) is unchanged.
+--
+-- Monthly partitions are created ahead of time by CheckInPartitionService
+-- through create_habit_checkin_partition(); rows outside every partition
+-- (e.g. old backdated check-ins) land in habit_checkins_default until the
+-- service gives their month its own partition.
+
+ALTER TABLE habit_checkins RENAME TO habit_checkins_unpartitioned;
+ALTER TABLE habit_checkins_unpartitioned RENAME CONSTRAINT habit_checkins_pkey TO habit_checkins_unpartitioned_pkey;
+ALTER TABLE habit_checkins_unpartitioned RENAME CONSTRAINT uk_habit_checkin_date TO uk_habit_checkin_date_unpartitioned;
+ALTER INDEX idx_habit_checkins_habit_created RENAME TO idx_habit_checkins_habit_created_unpartitioned;
+
+CREATE TABLE habit_checkins (
+    id           BIGINT    NOT NULL DEFAULT nextval('habit_checkins_id_seq'),
+    habit_id     BIGINT    NOT NULL,
+    checkin_date DATE      NOT NULL,
+    completed    BOOLEAN,
+    notes        VARCHAR(500),
+    created_at   TIMESTAMP(6),
+    PRIMARY KEY (id, checkin_date),
+    CONSTRAINT uk_habit_checkin_date UNIQUE (habit_id, checkin_date)
+) PARTITION BY RANGE (checkin_date);
+
+ALTER SEQUENCE habit_checkins_id_seq OWNED BY habit_checkins.id;
+
+CREATE TABLE habit_checkins_default PARTITION OF habit_checkins DEFAULT;
+
+CREATE INDEX idx_habit_checkins_habit_created ON habit_checkins (habit_id, created_at);
+
+ALTER TABLE habit_checkins ADD CONSTRAINT FK58amnre0jbfmqwb7u2f8fwa50 FOREIGN KEY (habit_id) REFERENCES habits;
+
+-- Create (or ensure) the partition for the month containing p_month.
+-- Rows of that month already sitting in the default partition are moved
+-- into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION create_habit_checkin_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    start_date DATE := date_trunc('month', p_month)::date;
+    end_date   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    part_name  TEXT := 'habit_checkins_' || to_char(p_month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(part_name) IS NOT NULL THEN
+        RETURN part_name;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM habit_checkins_default
+               WHERE checkin_date >= start_date AND checkin_date < end_date) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE habit_checkins INCLUDING DEFAULTS)', part_name);
+        EXECUTE format('WITH moved AS (DELETE FROM habit_checkins_default '
+                       'WHERE checkin_date >= %L AND checkin_date < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', start_date, end_date, part_name);
+        EXECUTE format('ALTER TABLE habit_checkins ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       part_name, start_date, end_date);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF habit_checkins FOR VALUES FROM (%L) TO (%L)',
+                       part_name, start_date, end_date);
+    END IF;
+    RETURN part_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month from the oldest check-in to three months ahead
+DO $$
+DECLARE
+    m DATE;
+BEGIN
+    m := date_trunc('month', LEAST(COALESCE((SELECT MIN(checkin_date) FROM habit_checkins_unpartitioned),
+                                            CURRENT_DATE), CURRENT_DATE))::date;
+    WHILE m <= (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date LOOP
+        PERFORM create_habit_checkin_partition(m);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO habit_checkins (id, habit_id, checkin_date, completed, notes, created_at)
+SELECT id, habit_id, checkin_date, completed, notes, created_at
+FROM habit_checkins_unpartitioned;
+
+DROP TABLE habit_checkins_unpartitioned;
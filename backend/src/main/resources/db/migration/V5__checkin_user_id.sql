@@ -0,0 +1,21 @@
+-- Denormalized owner on check-ins: user-level scans filter habit_checkins
+-- by (user_id, checkin_date) instead of an IN-list of the user's habit ids.
+--
+-- Consistency is enforced by the database: (habit_id, user_id) must match
+-- a habit row, so a check-in can never point at another user's habit.
+
+ALTER TABLE habit_checkins ADD COLUMN user_id BIGINT;
+
+UPDATE habit_checkins c
+SET user_id = h.user_id
+FROM habits h
+WHERE h.id = c.habit_id;
+
+ALTER TABLE habit_checkins ALTER COLUMN user_id SET NOT NULL;
+
+ALTER TABLE habits ADD CONSTRAINT uk_habits_id_user UNIQUE (id, user_id);
+
+ALTER TABLE habit_checkins ADD CONSTRAINT fk_habit_checkins_habit_user
+    FOREIGN KEY (habit_id, user_id) REFERENCES habits (id, user_id);
+
+CREATE INDEX idx_habit_checkins_user_date ON habit_checkins (user_id, checkin_date);
@@ -0,0 +1,19 @@
+-- Short-lived access tokens + rotating refresh tokens.
+--
+-- Refresh tokens are stored in verification_tokens (token = SHA-256 of the
+-- refresh token, never the token itself). Revoked access tokens are listed
+-- by jti until they expire; the app keeps a Bloom filter of this table so
+-- requests with a non-revoked token never query it.
+
+ALTER TABLE verification_tokens DROP CONSTRAINT IF EXISTS verification_tokens_token_type_check;
+ALTER TABLE verification_tokens ADD CONSTRAINT verification_tokens_token_type_check
+    CHECK (token_type IN ('EMAIL_VERIFICATION', 'PASSWORD_RESET', 'REFRESH'));
+
+CREATE TABLE revoked_tokens (
+    jti        VARCHAR(64)  NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens (expires_at);
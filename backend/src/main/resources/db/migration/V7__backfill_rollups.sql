@@ -0,0 +1,37 @@
+-- Backfill the derived check-in data for history recorded before it existed.
+-- Check-in and undo compute streaks from habit_year_bitmaps, so a habit
+-- without its bitmaps would get its streak reset on the next check-in.
+
+-- Per-habit yearly bitmaps: bit (day-of-year - 1) of a 46-byte bytea,
+-- same layout as set_bit in HabitYearBitmapRepository. Built per byte,
+-- then the 46 bytes of each (habit, year) are joined in order.
+WITH days AS (
+    SELECT DISTINCT habit_id,
+           EXTRACT(YEAR FROM checkin_date)::int    AS bitmap_year,
+           EXTRACT(DOY FROM checkin_date)::int - 1 AS day_index
+    FROM habit_checkins
+),
+bytes AS (
+    SELECT habit_id, bitmap_year, day_index / 8 AS byte_index, bit_or(1 << (day_index % 8)) AS byte_value
+    FROM days
+    GROUP BY habit_id, bitmap_year, day_index / 8
+)
+INSERT INTO habit_year_bitmaps (habit_id, bitmap_year, bits)
+SELECT y.habit_id, y.bitmap_year,
+       decode(string_agg(lpad(to_hex(COALESCE(b.byte_value, 0)), 2, '0'), '' ORDER BY i.byte_index), 'hex')
+FROM (SELECT DISTINCT habit_id, bitmap_year FROM bytes) y
+CROSS JOIN generate_series(0, 45) AS i(byte_index)
+LEFT JOIN bytes b ON b.habit_id = y.habit_id AND b.bitmap_year = y.bitmap_year AND b.byte_index = i.byte_index
+GROUP BY y.habit_id, y.bitmap_year
+ON CONFLICT (habit_id, bitmap_year) DO UPDATE SET bits = EXCLUDED.bits;
+
+-- Daily activity rollup: days without a row. Existing rows keep their
+-- recorded active_habit_count; history does not record when habits were
+-- archived, so backfilled days use the current count.
+INSERT INTO daily_activity (user_id, activity_date, checkin_count, active_habit_count, updated_at)
+SELECT c.user_id, c.checkin_date, COUNT(*),
+       (SELECT COUNT(*) FROM habits a WHERE a.user_id = c.user_id AND a.active = true),
+       now()
+FROM habit_checkins c
+GROUP BY c.user_id, c.checkin_date
+ON CONFLICT (user_id, activity_date) DO NOTHING;
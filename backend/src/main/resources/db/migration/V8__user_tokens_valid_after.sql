@@ -0,0 +1,6 @@
+-- Password change / reset ends every session: access tokens issued
+-- before this time are rejected (see TokenRevocationService)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_users_tokens_valid_after ON users (tokens_valid_after)
+    WHERE tokens_valid_after IS NOT NULL;
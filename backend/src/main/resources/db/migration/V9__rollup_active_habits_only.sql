@@ -0,0 +1,15 @@
+-- daily_activity.checkin_count only counts check-ins of active habits
+-- (archiving a habit now takes its check-ins out of the rollup). Recount
+-- the existing rows, which still include archived habits' check-ins.
+UPDATE daily_activity d
+SET checkin_count = COALESCE(c.active_checkins, 0),
+    updated_at = now()
+FROM daily_activity d2
+LEFT JOIN (
+    SELECT c.user_id, c.checkin_date, COUNT(*) AS active_checkins
+    FROM habit_checkins c
+    JOIN habits h ON h.id = c.habit_id AND h.active = true
+    GROUP BY c.user_id, c.checkin_date
+) c ON c.user_id = d2.user_id AND c.checkin_date = d2.activity_date
+WHERE d2.id = d.id
+  AND d.checkin_count <> COALESCE(c.active_checkins, 0);
@@ -0,0 +1,116 @@
+package com.betterme.repository;
+
+import com.betterme.model.Goal;
+import com.betterme.model.User;
+import com.betterme.repository.GoalProgressRepository.ProgressUpdate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel progress updates on one goal: no lost updates, one completion.
+ * The UPDATE ... FROM (... FOR UPDATE) ... RETURNING is PostgreSQL-only,
+ * so this runs against a real PostgreSQL (skipped without Docker).
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class GoalProgressConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int INCREMENTS = 200;
+    private static final int TARGET = 150;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelIncrementsAreNeverLostAndCompleteOnce() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("Concurrent")
+                .email("concurrent-" + System.nanoTime() + "@test.com")
+                .password("secret12")
+                .build());
+        Goal goal = goalRepository.save(Goal.builder()
+                .title("Run 150 km")
+                .targetValue(TARGET)
+                .user(user)
+                .build());
+
+        // All workers start together to maximise contention on the row
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Optional<ProgressUpdate>>> results = new ArrayList<>(INCREMENTS);
+        try {
+            Callable<Optional<ProgressUpdate>> increment = () -> {
+                start.await();
+                return goalRepository.incrementProgress(goal.getId(), user.getId(), 1);
+            };
+            for (int i = 0; i < INCREMENTS; i++) {
+                results.add(pool.submit(increment));
+            }
+            start.countDown();
+
+            int justCompleted = 0;
+            for (Future<Optional<ProgressUpdate>> result : results) {
+                ProgressUpdate update = result.get().orElseThrow();
+                if (update.isJustCompleted()) {
+                    justCompleted++;
+                }
+            }
+            assertThat(justCompleted).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT current_value, completed, completed_at FROM goals WHERE id = ?", goal.getId());
+        assertThat(row.get("current_value")).isEqualTo(INCREMENTS);
+        assertThat(row.get("completed")).isEqualTo(true);
+        assertThat(row.get("completed_at")).isNotNull();
+    }
+
+    @Test
+    void otherUsersCannotUpdateTheGoal() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner-" + System.nanoTime() + "@test.com")
+                .password("secret12")
+                .build());
+        Goal goal = goalRepository.save(Goal.builder()
+                .title("Read 10 books")
+                .targetValue(10)
+                .user(owner)
+                .build());
+
+        assertThat(goalRepository.incrementProgress(goal.getId(), owner.getId() + 1_000_000, 1)).isEmpty();
+        assertThat(goalRepository.incrementProgress(goal.getId(), owner.getId(), -5))
+                .hasValueSatisfying(update -> assertThat(update.getCurrentValue()).isZero());
+    }
+}
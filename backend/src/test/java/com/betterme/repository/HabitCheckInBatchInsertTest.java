@@ -0,0 +1,68 @@
+package com.betterme.repository;
+
+import com.betterme.dto.BatchCheckInRequest;
+import com.betterme.model.Habit;
+import com.betterme.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The batch insert reports exactly the rows it inserted, not the ones that
+ * already existed. INSERT ... ON CONFLICT ... RETURNING is PostgreSQL-only,
+ * so this runs against a real PostgreSQL (skipped without Docker).
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class HabitCheckInBatchInsertTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private HabitCheckInRepository checkInRepository;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rowsThatAlreadyExistAreNotReportedAsInserted() {
+        User user = userRepository.save(User.builder()
+                .name("Batch")
+                .email("batch-" + System.nanoTime() + "@test.com")
+                .password("secret12")
+                .build());
+        Long walk = habitRepository.save(Habit.builder().name("Walk").user(user).build()).getId();
+        Long read = habitRepository.save(Habit.builder().name("Read").user(user).build()).getId();
+        LocalDate today = LocalDate.now();
+
+        // Checked in concurrently, after the caller's exists-query
+        jdbcTemplate.update("INSERT INTO habit_checkins (habit_id, user_id, checkin_date, completed, created_at) "
+                + "VALUES (?, ?, ?, true, now())", read, user.getId(), today);
+
+        List<BatchCheckInRequest.Item> items = List.of(item(walk), item(read));
+        assertThat(checkInRepository.insertCheckIns(user.getId(), items, today)).containsExactly(walk);
+        assertThat(checkInRepository.insertCheckIns(user.getId(), items, today)).isEmpty();
+    }
+
+    private BatchCheckInRequest.Item item(Long habitId) {
+        return BatchCheckInRequest.Item.builder().habitId(habitId).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.betterme.security;
+
+import com.betterme.model.Role;
+import com.betterme.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification on the JwtAuthenticationFilter path.
+ *
+ * keyPerParse is how a request was authenticated before: the secret is
+ * decoded and a key and parser built for every parse. sharedParser is the
+ * first request with a token (JwtService's startup-built parser, one
+ * verification), cacheHit every later one (VerifiedTokenCache lookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    // Default jwt.secret from application.yml
+    private static final String SECRET =
+            "bXlTdXBlclNlY3JldEtleUZvckpXVHRva2VuR2VuZXJhdGlvblRoaXNTaG91bGRCZUxvbmdFbm91Z2gxMjM0NTY3ODk=";
+
+    private JwtService jwtService;
+    private VerifiedTokenCache tokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 900_000);
+        tokenCache = new VerifiedTokenCache(10_000, new SimpleMeterRegistry());
+
+        User user = User.builder().id(42L).email("bench@example.com").role(Role.USER).build();
+        token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.parseToken(token);
+        tokenCache.put(token, new VerifiedTokenCache.VerifiedToken(jwtService.extractAuthUser(claims),
+                claims.getId(), claims.getIssuedAt().getTime() / 1000, claims.getExpiration().getTime()));
+    }
+
+    @Benchmark
+    public AuthUser keyPerParse() {
+        Claims claims = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return jwtService.extractAuthUser(claims);
+    }
+
+    @Benchmark
+    public AuthUser sharedParser() {
+        return jwtService.extractAuthUser(jwtService.parseToken(token));
+    }
+
+    @Benchmark
+    public AuthUser cacheHit() {
+        return tokenCache.get(token).getUser();
+    }
+}
@@ -0,0 +1,92 @@
+package com.betterme.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login storm: 8 threads log in continuously while 1 thread serves a
+ * cheap request (hashing a token, as the filter's cache lookup does).
+ *
+ * In "unbounded" logins run BCrypt on the calling threads, as before
+ * BoundedBCryptPasswordEncoder. In "bounded" they go through it with one
+ * hashing thread and a queue of 2, and a rejected (503) login waits 10 ms
+ * before retrying like a client would. Compare the cheap request's
+ * latency percentiles between the two groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final int STRENGTH = 8;
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJiZW5jaEBleGFtcGxlLmNvbSJ9.signature";
+
+    private BCryptPasswordEncoder unbounded;
+    private BoundedBCryptPasswordEncoder bounded;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        unbounded = new BCryptPasswordEncoder(STRENGTH);
+        bounded = new BoundedBCryptPasswordEncoder(STRENGTH, 250, STRENGTH, STRENGTH, 1, 2,
+                new SimpleMeterRegistry());
+        hash = unbounded.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.shutdown();
+    }
+
+    @Benchmark
+    @Group("unbounded")
+    @GroupThreads(8)
+    public boolean unboundedLogin() {
+        return unbounded.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("unbounded")
+    @GroupThreads(1)
+    public String unboundedRequest() {
+        return TokenHashes.sha256(TOKEN);
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(8)
+    public boolean boundedLogin() throws InterruptedException {
+        try {
+            return bounded.matches(PASSWORD, hash);
+        } catch (PasswordHashingBusyException e) {
+            Thread.sleep(10);
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(1)
+    public String boundedRequest() {
+        return TokenHashes.sha256(TOKEN);
+    }
+}
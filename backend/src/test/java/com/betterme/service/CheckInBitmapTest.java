@@ -0,0 +1,92 @@
+package com.betterme.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bit scans over the merged per-year bitmaps (plain Java, no database)
+ */
+class CheckInBitmapTest {
+
+    @Test
+    void emptyHistoryHasNoCheckInsOrRuns() {
+        CheckInBitmap history = CheckInBitmap.empty();
+
+        assertThat(history.isChecked(LocalDate.of(2026, 6, 30))).isFalse();
+        assertThat(history.runEndingAt(LocalDate.of(2026, 6, 30))).isZero();
+        assertThat(history.longestRun()).isZero();
+        assertThat(history.monthMask(YearMonth.of(2026, 6))).isZero();
+    }
+
+    @Test
+    void runsAreMeasuredFromTheDayInBothDirections() {
+        CheckInBitmap history = bitmap(
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 3),
+                LocalDate.of(2026, 3, 5));
+
+        assertThat(history.runEndingAt(LocalDate.of(2026, 3, 3))).isEqualTo(3);
+        assertThat(history.runStartingAt(LocalDate.of(2026, 3, 2))).isEqualTo(2);
+        assertThat(history.runEndingAt(LocalDate.of(2026, 3, 4))).isZero();
+        assertThat(history.runStartingAt(LocalDate.of(2026, 3, 5))).isEqualTo(1);
+        assertThat(history.longestRun()).isEqualTo(3);
+        assertThat(history.countBetween(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 5))).isEqualTo(3);
+        assertThat(history.monthMask(YearMonth.of(2026, 3))).isEqualTo(0b10111);
+    }
+
+    @Test
+    void aRunCrossesTheBoundaryBetweenTwoStoredYears() {
+        CheckInBitmap history = bitmap(
+                LocalDate.of(2025, 12, 30), LocalDate.of(2025, 12, 31),
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2));
+
+        assertThat(history.runEndingAt(LocalDate.of(2026, 1, 2))).isEqualTo(4);
+        assertThat(history.runStartingAt(LocalDate.of(2025, 12, 30))).isEqualTo(4);
+        assertThat(history.longestRun()).isEqualTo(4);
+        assertThat(history.countBetween(LocalDate.of(2025, 12, 31), LocalDate.of(2026, 1, 31))).isEqualTo(3);
+    }
+
+    @Test
+    void leapDaysAndMissingYearsKeepTheDayIndexes() {
+        // 2024 is a leap year (bit 365 = Dec 31), 2025 has no stored bitmap
+        CheckInBitmap history = bitmap(
+                LocalDate.of(2024, 2, 29), LocalDate.of(2024, 12, 31), LocalDate.of(2026, 1, 1));
+
+        assertThat(history.isChecked(LocalDate.of(2024, 2, 29))).isTrue();
+        assertThat(history.isChecked(LocalDate.of(2024, 12, 31))).isTrue();
+        assertThat(history.isChecked(LocalDate.of(2025, 1, 1))).isFalse();
+        assertThat(history.isChecked(LocalDate.of(2026, 1, 1))).isTrue();
+        assertThat(history.runEndingAt(LocalDate.of(2026, 1, 1))).isEqualTo(1);
+        assertThat(history.monthMask(YearMonth.of(2023, 12))).isZero();
+    }
+
+    @Test
+    void bitsPastTheEndOfAYearAreIgnored() {
+        byte[] bits = new byte[46];
+        bits[365 / 8] |= (byte) (1 << (365 % 8)); // Day 366 of a 365-day year
+        CheckInBitmap history = CheckInBitmap.builder().addYear(2025, bits).build();
+
+        assertThat(history.isChecked(LocalDate.of(2026, 1, 1))).isFalse();
+        assertThat(history.longestRun()).isZero();
+    }
+
+    /**
+     * History with check-ins on these dates, stored as per-year bitmaps
+     */
+    static CheckInBitmap bitmap(LocalDate... dates) {
+        Map<Integer, byte[]> years = new TreeMap<>();
+        for (LocalDate date : dates) {
+            byte[] bits = years.computeIfAbsent(date.getYear(), year -> new byte[46]);
+            int n = date.getDayOfYear() - 1;
+            bits[n / 8] |= (byte) (1 << (n % 8));
+        }
+        CheckInBitmap.Builder builder = CheckInBitmap.builder();
+        years.forEach(builder::addYear);
+        return builder.build();
+    }
+}
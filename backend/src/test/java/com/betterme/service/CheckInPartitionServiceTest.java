@@ -0,0 +1,57 @@
+package com.betterme.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Partition retention never detaches a month check-ins can still be
+ * logged for (plain Java, no database)
+ */
+class CheckInPartitionServiceTest {
+
+    @Test
+    void retentionShorterThanTheBackfillWindowFailsStartup() {
+        assertThatThrownBy(() -> CheckInPartitionService.checkRetention(11, 365))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("at least 12");
+        assertThatThrownBy(() -> CheckInPartitionService.checkRetention(5, 180))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void noRetentionOrAWindowCoveringTheBackfillStarts() {
+        assertThatCode(() -> CheckInPartitionService.checkRetention(0, 365)).doesNotThrowAnyException();
+        assertThatCode(() -> CheckInPartitionService.checkRetention(12, 365)).doesNotThrowAnyException();
+        assertThatCode(() -> CheckInPartitionService.checkRetention(6, 180)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void cutoffKeepsTheMonthOfTheOldestWritableDay() {
+        // 365 days back from Mar 1 is Mar 1/2 of the year before, in common and leap years
+        assertThat(CheckInPartitionService.detachCutoff(LocalDate.of(2026, 3, 1), 12, 365))
+                .isEqualTo(YearMonth.of(2025, 3));
+        assertThat(CheckInPartitionService.detachCutoff(LocalDate.of(2024, 3, 1), 12, 365))
+                .isEqualTo(YearMonth.of(2023, 3));
+        assertThat(CheckInPartitionService.detachCutoff(LocalDate.of(2026, 12, 31), 12, 365))
+                .isEqualTo(YearMonth.of(2025, 12));
+    }
+
+    @Test
+    void cutoffIsClampedWhenTheRetentionMonthsAreTooShort() {
+        // 370 days back from Mar 1, 2026 is Feb 24, 2025: February stays attached
+        assertThat(CheckInPartitionService.detachCutoff(LocalDate.of(2026, 3, 1), 12, 370))
+                .isEqualTo(YearMonth.of(2025, 2));
+    }
+
+    @Test
+    void longerRetentionIsKept() {
+        assertThat(CheckInPartitionService.detachCutoff(LocalDate.of(2026, 3, 1), 24, 365))
+                .isEqualTo(YearMonth.of(2024, 3));
+    }
+}
@@ -0,0 +1,114 @@
+package com.betterme.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streak recomputation after a backdated check-in.
+ *
+ * incremental is what HabitService.checkIn does: two bit scans over the
+ * run through the edited day. fullRescan walks the whole sorted history,
+ * as recomputing from the check-in rows would. The history is runs of
+ * runLength days separated by one missed day, and the edited day sits in
+ * the middle, so incremental should only move with runLength and
+ * fullRescan only with historyDays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckInStreakBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 30);
+
+    @Param({"1000", "10000"})
+    private int historyDays;
+
+    @Param({"7", "100", "1000"})
+    private int runLength;
+
+    private CheckInBitmap history;
+    private List<LocalDate> sortedDates;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        LocalDate first = TODAY.minusDays(historyDays - 1);
+        sortedDates = new ArrayList<>();
+        Map<Integer, byte[]> years = new HashMap<>();
+        for (int i = 0; i < historyDays; i++) {
+            if (i % (runLength + 1) == runLength) {
+                continue;
+            }
+            LocalDate day = first.plusDays(i);
+            sortedDates.add(day);
+            int n = day.getDayOfYear() - 1;
+            years.computeIfAbsent(day.getYear(), year -> new byte[46])[n >> 3] |= (byte) (1 << (n & 7));
+        }
+
+        CheckInBitmap.Builder builder = CheckInBitmap.builder();
+        years.forEach(builder::addYear);
+        history = builder.build();
+
+        // Last day of the run in the middle of the history
+        int middle = historyDays / 2;
+        date = first.plusDays(middle - middle % (runLength + 1) + runLength - 1);
+        if (history.runEndingAt(date) != Math.min(runLength, historyDays)) {
+            throw new IllegalStateException("History does not have the expected runs");
+        }
+    }
+
+    @Benchmark
+    public void incremental(Blackhole blackhole) {
+        int daysAfter = history.runStartingAt(date) - 1;
+        int run = history.runEndingAt(date) + daysAfter;
+        blackhole.consume(run);
+        blackhole.consume(!date.plusDays(daysAfter).isBefore(TODAY.minusDays(1)));
+    }
+
+    @Benchmark
+    public void fullRescan(Blackhole blackhole) {
+        int run = 0;
+        int longest = 0;
+        int current = 0;
+        boolean containsDate = false;
+        LocalDate previous = null;
+        for (LocalDate day : sortedDates) {
+            if (previous != null && day.equals(previous.plusDays(1))) {
+                current++;
+            } else {
+                current = 1;
+                containsDate = false;
+            }
+            if (day.equals(date)) {
+                containsDate = true;
+            }
+            if (containsDate) {
+                run = current;
+            }
+            longest = Math.max(longest, current);
+            previous = day;
+        }
+        blackhole.consume(run);
+        blackhole.consume(longest);
+    }
+}
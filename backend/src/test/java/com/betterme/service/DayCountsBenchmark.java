@@ -0,0 +1,117 @@
+package com.betterme.service;
+
+import com.betterme.model.HabitCheckIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Year heatmap aggregation in AnalyticsService.getYearHeatmap.
+ *
+ * groupedEntities is the code before DayCounts: check-in entities grouped
+ * into a Map<LocalDate, Long>, a LocalDate walk over the year and a sorted
+ * copy of the active days for the longest streak. dayCounts is the int[]
+ * kernel fed from the date-only projection. Each habit is checked in on
+ * about 70% of the days.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayCountsBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @Param({"5", "20"})
+    private int habits;
+
+    private List<HabitCheckIn> checkIns;
+    private List<LocalDate> checkInDates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        checkIns = new ArrayList<>();
+        checkInDates = new ArrayList<>();
+        for (int habit = 0; habit < habits; habit++) {
+            for (LocalDate day = START; !day.isAfter(END); day = day.plusDays(1)) {
+                if (random.nextInt(10) < 7) {
+                    checkIns.add(HabitCheckIn.builder().checkInDate(day).build());
+                    checkInDates.add(day);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void groupedEntities(Blackhole blackhole) {
+        Map<LocalDate, Long> checkInsByDate = checkIns.stream()
+                .collect(Collectors.groupingBy(HabitCheckIn::getCheckInDate, Collectors.counting()));
+
+        LocalDate current = START;
+        while (!current.isAfter(END)) {
+            blackhole.consume(checkInsByDate.getOrDefault(current, 0L).intValue());
+            current = current.plusDays(1);
+        }
+
+        blackhole.consume(checkIns.size());
+        blackhole.consume(checkInsByDate.size());
+        blackhole.consume(longestStreak(checkInsByDate.keySet()));
+    }
+
+    @Benchmark
+    public void dayCounts(Blackhole blackhole) {
+        DayCounts counts = new DayCounts(START, END);
+        for (LocalDate date : checkInDates) {
+            counts.add(date);
+        }
+
+        for (int i = 0; i < counts.size(); i++) {
+            blackhole.consume(counts.get(i));
+        }
+
+        blackhole.consume(counts.total());
+        blackhole.consume(counts.activeDays());
+        blackhole.consume(counts.longestStreak());
+    }
+
+    // AnalyticsService.calculateLongestStreak before DayCounts
+    private static int longestStreak(Set<LocalDate> activeDays) {
+        if (activeDays.isEmpty()) {
+            return 0;
+        }
+        List<LocalDate> sorted = activeDays.stream().sorted().collect(Collectors.toList());
+        int longest = 1;
+        int current = 1;
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).equals(sorted.get(i - 1).plusDays(1))) {
+                current++;
+                longest = Math.max(longest, current);
+            } else {
+                current = 1;
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,88 @@
+package com.betterme.service;
+
+import com.betterme.dto.HabitRequest;
+import com.betterme.dto.WeeklyProgress;
+import com.betterme.model.User;
+import com.betterme.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The daily_activity rollup only counts check-ins of active habits:
+ * archiving a habit takes its check-ins out of every day, so a day never
+ * shows more completions than habits. Native upserts, so PostgreSQL only
+ * (skipped without Docker).
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class HabitArchiveRollupTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void archivingAHabitRemovesItsCheckInsFromTheRollup() {
+        User user = userRepository.save(User.builder()
+                .name("Archiver")
+                .email("archiver-" + System.nanoTime() + "@test.com")
+                .password("secret12")
+                .build());
+        Long walk = createHabit(user, "Walk");
+        Long read = createHabit(user, "Read");
+        Long stretch = createHabit(user, "Stretch");
+
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        for (Long habitId : List.of(walk, read, stretch)) {
+            habitService.checkIn(habitId, user, today, null);
+        }
+        habitService.checkIn(walk, user, yesterday, null);
+        habitService.checkIn(stretch, user, yesterday, null);
+
+        habitService.deleteHabit(stretch, user);
+
+        WeeklyProgress.DayProgress todayProgress = day(user, today);
+        assertThat(todayProgress.getCompleted()).isEqualTo(2);
+        assertThat(todayProgress.getTotal()).isEqualTo(2);
+        assertThat(todayProgress.getPercentage()).isEqualTo(100.0);
+        assertThat(day(user, yesterday).getCompleted()).isEqualTo(1);
+
+        // Undoing an archived habit's check-in does not subtract it a second time
+        habitService.undoCheckIn(stretch, user, today);
+        assertThat(day(user, today).getCompleted()).isEqualTo(2);
+
+        habitService.undoCheckIn(walk, user, today);
+        assertThat(day(user, today).getCompleted()).isEqualTo(1);
+    }
+
+    private Long createHabit(User user, String name) {
+        return habitService.createHabit(HabitRequest.builder().name(name).build(), user).getId();
+    }
+
+    private WeeklyProgress.DayProgress day(User user, LocalDate date) {
+        return dashboardService.getWeeklyProgress(user).getDays().stream()
+                .filter(day -> day.getDate().equals(date))
+                .findFirst()
+                .orElseThrow();
+    }
+}
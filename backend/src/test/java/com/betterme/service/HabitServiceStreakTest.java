@@ -0,0 +1,131 @@
+package com.betterme.service;
+
+import com.betterme.repository.HabitCounterRepository.CheckInCounters;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.betterme.service.CheckInBitmapTest.bitmap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Incremental streak arithmetic of check-in and undo (plain Java, no
+ * database). Histories are what HabitService sees: after marking the day
+ * for a check-in, before clearing it for an undo.
+ */
+class HabitServiceStreakTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 30);
+
+    // CHECK-IN
+
+    @Test
+    void checkInTodayExtendsTheCurrentStreak() {
+        CheckInCounters counters = HabitService.countersAfterCheckIn(1L,
+                run(TODAY.minusDays(3), TODAY), TODAY, TODAY);
+
+        assertThat(counters.getRun()).isEqualTo(4);
+        assertThat(counters.getCurrentStreak()).isEqualTo(4);
+        assertThat(counters.isToday()).isTrue();
+    }
+
+    @Test
+    void backdatedCheckInJoinsTwoRuns() {
+        // 20-24 and 26-30 June, then the 25th is logged
+        LocalDate missed = LocalDate.of(2026, 6, 25);
+        CheckInCounters counters = HabitService.countersAfterCheckIn(1L,
+                run(LocalDate.of(2026, 6, 20), TODAY), missed, TODAY);
+
+        assertThat(counters.getRun()).isEqualTo(11);
+        assertThat(counters.getCurrentStreak()).isEqualTo(11);
+        assertThat(counters.isToday()).isFalse();
+    }
+
+    @Test
+    void backdatedCheckInInAnOldRunLeavesTheCurrentStreak() {
+        LocalDate old = LocalDate.of(2026, 5, 10);
+        CheckInCounters counters = HabitService.countersAfterCheckIn(1L,
+                run(LocalDate.of(2026, 5, 8), old), old, TODAY);
+
+        assertThat(counters.getRun()).isEqualTo(3);
+        assertThat(counters.getCurrentStreak()).isNull();
+    }
+
+    @Test
+    void checkInOnNewYearsDayContinuesLastYearsRun() {
+        LocalDate newYear = LocalDate.of(2026, 1, 1);
+        CheckInCounters counters = HabitService.countersAfterCheckIn(1L,
+                run(LocalDate.of(2025, 12, 29), newYear), newYear, newYear);
+
+        assertThat(counters.getRun()).isEqualTo(4);
+        assertThat(counters.getCurrentStreak()).isEqualTo(4);
+    }
+
+    // UNDO
+
+    @Test
+    void undoTodayKeepsTheDaysBefore() {
+        CheckInBitmap history = run(TODAY.minusDays(4), TODAY);
+
+        assertThat(HabitService.currentStreakAfterUndo(history, TODAY, TODAY)).isEqualTo(4);
+    }
+
+    @Test
+    void undoYesterdayEndsTheStreakUnlessTodayIsChecked() {
+        LocalDate yesterday = TODAY.minusDays(1);
+
+        assertThat(HabitService.currentStreakAfterUndo(
+                run(TODAY.minusDays(5), yesterday), yesterday, TODAY)).isZero();
+        assertThat(HabitService.currentStreakAfterUndo(
+                run(TODAY.minusDays(5), TODAY), yesterday, TODAY)).isEqualTo(1);
+    }
+
+    @Test
+    void undoMidRunKeepsThePartAfterTheDay() {
+        CheckInBitmap history = run(LocalDate.of(2026, 6, 20), TODAY);
+
+        assertThat(HabitService.currentStreakAfterUndo(history, LocalDate.of(2026, 6, 25), TODAY)).isEqualTo(5);
+    }
+
+    @Test
+    void undoInAnOldRunLeavesTheCurrentStreak() {
+        CheckInBitmap history = run(LocalDate.of(2026, 5, 8), LocalDate.of(2026, 5, 12));
+
+        assertThat(HabitService.currentStreakAfterUndo(history, LocalDate.of(2026, 5, 10), TODAY)).isNull();
+    }
+
+    @Test
+    void undoAcrossTheYearBoundaryKeepsTheNewYearPart() {
+        LocalDate today = LocalDate.of(2026, 1, 2);
+        CheckInBitmap history = run(LocalDate.of(2025, 12, 28), today);
+
+        assertThat(HabitService.currentStreakAfterUndo(history, LocalDate.of(2025, 12, 31), today)).isEqualTo(2);
+    }
+
+    @Test
+    void longestStreakIsRescannedOnlyWhenTheSplitRunWasTheLongest() {
+        // Runs of 11 (20-30 June) and 3 (8-10 May)
+        List<LocalDate> checked = days(LocalDate.of(2026, 6, 20), TODAY);
+        checked.addAll(days(LocalDate.of(2026, 5, 8), LocalDate.of(2026, 5, 10)));
+        CheckInBitmap history = bitmap(checked.toArray(LocalDate[]::new));
+
+        assertThat(HabitService.splitsLongestRun(history, LocalDate.of(2026, 6, 25), 11)).isTrue();
+        assertThat(HabitService.splitsLongestRun(history, LocalDate.of(2026, 5, 9), 11)).isFalse();
+        // The stored longest streak is longer than any run through the day
+        assertThat(HabitService.splitsLongestRun(history, LocalDate.of(2026, 6, 25), 30)).isFalse();
+    }
+
+    private static List<LocalDate> days(LocalDate from, LocalDate to) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        return days;
+    }
+
+    private static CheckInBitmap run(LocalDate from, LocalDate to) {
+        return bitmap(days(from, to).toArray(LocalDate[]::new));
+    }
+}
@@ -0,0 +1,163 @@
+package com.betterme.service;
+
+import com.betterme.dto.GoalRequest;
+import com.betterme.dto.HabitRequest;
+import com.betterme.model.GoalType;
+import com.betterme.model.Notification.NotificationType;
+import com.betterme.model.User;
+import com.betterme.repository.NotificationRepository;
+import com.betterme.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Linked-goal progress goes through the goal_progress_outbox table:
+ * changes are stored with the check-in and applied exactly once by the
+ * flush. PostgreSQL only (skipped without Docker); the scheduled flush is
+ * pushed out so the test decides when it runs.
+ */
+@SpringBootTest(properties = "app.goal-progress.flush-interval-ms=3600000")
+@Testcontainers(disabledWithoutDocker = true)
+class LinkedGoalProgressTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private LinkedGoalProgressService linkedGoalProgressService;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void checkInsAndUndosMoveACountGoalAndCompleteItOnce() {
+        User user = newUser("count");
+        Long habitId = habitService.createHabit(HabitRequest.builder().name("Run").build(), user).getId();
+        Long goalId = goalService.createGoal(GoalRequest.builder()
+                .title("Run twice")
+                .type(GoalType.COUNT)
+                .targetValue(2)
+                .linkedHabitId(habitId)
+                .build(), user).getId();
+
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+
+        // Stored with the check-in, before any flush
+        habitService.checkIn(habitId, user, yesterday, null);
+        assertThat(outbox(habitId)).isEqualTo(1);
+
+        habitService.checkIn(habitId, user, today, null);
+        habitService.undoCheckIn(habitId, user, today);
+        linkedGoalProgressService.flush();
+        assertThat(outbox(habitId)).isZero();
+        assertThat(currentValue(goalId)).isEqualTo(1);
+        assertThat(completed(goalId)).isFalse();
+
+        // A second flush has nothing left to apply
+        linkedGoalProgressService.flush();
+        assertThat(currentValue(goalId)).isEqualTo(1);
+
+        habitService.checkIn(habitId, user, today, null);
+        linkedGoalProgressService.flush();
+        assertThat(currentValue(goalId)).isEqualTo(2);
+        assertThat(completed(goalId)).isTrue();
+        assertThat(goalNotifications(user)).isEqualTo(1);
+
+        // Completed goals stay completed: undo and redo do not complete them again
+        habitService.undoCheckIn(habitId, user, today);
+        habitService.checkIn(habitId, user, today, null);
+        linkedGoalProgressService.flush();
+        assertThat(currentValue(goalId)).isEqualTo(2);
+        assertThat(goalNotifications(user)).isEqualTo(1);
+    }
+
+    @Test
+    void aChangeThatKeepsFailingIsParkedWithoutBlockingTheOthers() {
+        User user = newUser("poison");
+        Long swim = habitService.createHabit(HabitRequest.builder().name("Swim").build(), user).getId();
+        Long dive = habitService.createHabit(HabitRequest.builder().name("Dive").build(), user).getId();
+        Long swimGoal = createCountGoal(user, "Swim a lot", swim);
+        Long diveGoal = createCountGoal(user, "Dive a lot", dive);
+
+        // current_value + delta overflows an INT on every attempt
+        jdbcTemplate.update("UPDATE goals SET current_value = 1 WHERE id = ?", diveGoal);
+        jdbcTemplate.update("INSERT INTO goal_progress_outbox (habit_id, delta) VALUES (?, ?)",
+                dive, Integer.MAX_VALUE);
+
+        for (int day = 0; day < 5; day++) {
+            habitService.checkIn(swim, user, LocalDate.now().minusDays(day), null);
+            linkedGoalProgressService.flush();
+        }
+        assertThat(currentValue(swimGoal)).isEqualTo(5);
+        assertThat(currentValue(diveGoal)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT attempts FROM goal_progress_outbox WHERE habit_id = ?", Integer.class, dive))
+                .isEqualTo(5);
+
+        // Parked: no longer claimed, the others still go through
+        habitService.checkIn(dive, user, LocalDate.now(), null);
+        linkedGoalProgressService.flush();
+        assertThat(currentValue(diveGoal)).isEqualTo(2);
+        assertThat(outbox(dive)).isEqualTo(1);
+    }
+
+    private Long createCountGoal(User user, String title, Long habitId) {
+        return goalService.createGoal(GoalRequest.builder()
+                .title(title)
+                .type(GoalType.COUNT)
+                .targetValue(100)
+                .linkedHabitId(habitId)
+                .build(), user).getId();
+    }
+
+    private int outbox(Long habitId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM goal_progress_outbox WHERE habit_id = ?", Integer.class, habitId);
+    }
+
+    private int currentValue(Long goalId) {
+        return jdbcTemplate.queryForObject("SELECT current_value FROM goals WHERE id = ?", Integer.class, goalId);
+    }
+
+    private boolean completed(Long goalId) {
+        return jdbcTemplate.queryForObject("SELECT completed FROM goals WHERE id = ?", Boolean.class, goalId);
+    }
+
+    private long goalNotifications(User user) {
+        return notificationRepository.findByUserOrderByCreatedAtDesc(user).stream()
+                .filter(notification -> notification.getType() == NotificationType.GOAL)
+                .count();
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + System.nanoTime() + "@test.com")
+                .password("secret12")
+                .build());
+    }
+}
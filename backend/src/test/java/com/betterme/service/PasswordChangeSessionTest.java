@@ -0,0 +1,81 @@
+package com.betterme.service;
+
+import com.betterme.dto.AuthResponse;
+import com.betterme.dto.PasswordChangeRequest;
+import com.betterme.model.User;
+import com.betterme.repository.UserRepository;
+import com.betterme.security.AuthUser;
+import com.betterme.security.JwtService;
+import com.betterme.security.TokenRevocationService;
+import com.betterme.security.VerifiedTokenCache.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A password change ends every session but hands the caller a new token
+ * pair that still works, even when the old tokens were issued in the same
+ * second as the change. Runs against a real PostgreSQL (skipped without
+ * Docker).
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class PasswordChangeSessionTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void thePasswordChangerGetsTheOnlyTokensThatStillWork() {
+        User user = userRepository.save(User.builder()
+                .name("Changer")
+                .email("changer-" + System.nanoTime() + "@test.com")
+                .password(passwordEncoder.encode("secret12"))
+                .build());
+        String oldAccess = jwtService.generateToken(user);
+        String oldRefresh = refreshTokenService.issue(user);
+
+        PasswordChangeRequest request = new PasswordChangeRequest();
+        request.setCurrentPassword("secret12");
+        request.setNewPassword("secret34");
+        AuthResponse renewed = userService.changePassword(AuthUser.from(user), request);
+
+        assertThat(revocationService.isRevoked(verified(oldAccess))).isTrue();
+        assertThat(revocationService.isRevoked(verified(renewed.getToken()))).isFalse();
+        assertThat(refreshTokenService.consume(oldRefresh)).isEmpty();
+        assertThat(refreshTokenService.consume(renewed.getRefreshToken())).isPresent();
+    }
+
+    private VerifiedToken verified(String token) {
+        Claims claims = jwtService.parseToken(token);
+        return new VerifiedToken(jwtService.extractAuthUser(claims), claims.getId(),
+                claims.getIssuedAt().getTime() / 1000, claims.getExpiration().getTime());
+    }
+}
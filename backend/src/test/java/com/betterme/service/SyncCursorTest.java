@@ -0,0 +1,121 @@
+package com.betterme.service;
+
+import com.betterme.dto.HabitRequest;
+import com.betterme.dto.SyncRequest;
+import com.betterme.dto.SyncResponse;
+import com.betterme.dto.NotificationResponse;
+import com.betterme.model.User;
+import com.betterme.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delta sync cursor: change_seq triggers and the snapshot watermark are
+ * PostgreSQL-only, so this runs against a real PostgreSQL (skipped
+ * without Docker).
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class SyncCursorTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rowsOfATransactionOpenDuringASyncComeWithTheNextOne() throws Exception {
+        User user = newUser("cursor");
+        SyncResponse first = syncService.sync(new SyncRequest(), user);
+
+        // Starts (and stamps now()) before the sync, commits after it
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO notifications (user_id, message, type, is_read, created_at) "
+                            + "VALUES (?, 'Slow writer', 'SYSTEM', false, now() - interval '1 hour')")) {
+                insert.setLong(1, user.getId());
+                insert.executeUpdate();
+            }
+
+            SyncResponse during = syncService.sync(SyncRequest.builder().since(first.getCursor()).build(), user);
+            assertThat(during.getNotifications()).isEmpty();
+            connection.commit();
+
+            SyncResponse after = syncService.sync(SyncRequest.builder().since(during.getCursor()).build(), user);
+            assertThat(after.isFullResync()).isFalse();
+            assertThat(after.getNotifications())
+                    .extracting(NotificationResponse::getMessage)
+                    .containsExactly("Slow writer");
+        }
+    }
+
+    @Test
+    void fullResyncReturnsTheWholeCheckInHistory() {
+        User user = newUser("history");
+        Long habitId = habitService.createHabit(HabitRequest.builder().name("Journal").build(), user).getId();
+        habitService.checkIn(habitId, user, LocalDate.now().minusDays(200), null);
+        habitService.checkIn(habitId, user, LocalDate.now(), null);
+
+        SyncResponse full = syncService.sync(new SyncRequest(), user);
+        assertThat(full.isFullResync()).isTrue();
+        assertThat(full.getCheckIns()).hasSize(2);
+
+        SyncResponse delta = syncService.sync(SyncRequest.builder().since(full.getCursor()).build(), user);
+        assertThat(delta.getCheckIns()).isEmpty();
+        assertThat(delta.getHabits()).isEmpty();
+    }
+
+    @Test
+    void cursorsFromBeforeAPurgedTombstoneGetAFullResync() {
+        User user = newUser("purge");
+        Long habitId = habitService.createHabit(HabitRequest.builder().name("Stretch").build(), user).getId();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        habitService.checkIn(habitId, user, yesterday, null);
+
+        SyncResponse before = syncService.sync(new SyncRequest(), user);
+        habitService.undoCheckIn(habitId, user, yesterday);
+        jdbcTemplate.update("UPDATE deleted_checkins SET deleted_at = now() - interval '1000 days' WHERE user_id = ?",
+                user.getId());
+        syncService.purgeTombstones();
+
+        SyncResponse after = syncService.sync(SyncRequest.builder().since(before.getCursor()).build(), user);
+        assertThat(after.isFullResync()).isTrue();
+        assertThat(after.getCheckIns()).isEmpty();
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + System.nanoTime() + "@test.com")
+                .password("secret12")
+                .build());
+    }
+}
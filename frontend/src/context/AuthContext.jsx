@@ -34,32 +34,38 @@ export const AuthProvider = ({ children }) => {
         setLoading(false);
     }, [token]);
 
-    const login = async (email, password) => {
-        const response = await api.post('/api/auth/login', { email, password });
-        const { token: newToken, ...userData } = response.data;
+    // Store a token pair from the server (login, register, password change)
+    const startSession = (data) => {
+        const { token: newToken, refreshToken, ...userData } = data;
 
         localStorage.setItem('token', newToken);
+        localStorage.setItem('refreshToken', refreshToken);
         api.defaults.headers.common['Authorization'] = `Bearer ${newToken}`;
         setToken(newToken);
         setUser(userData);
+    };
 
+    const login = async (email, password) => {
+        const response = await api.post('/api/auth/login', { email, password });
+        startSession(response.data);
         return response.data;
     };
 
     const register = async (name, email, password) => {
         const response = await api.post('/api/auth/register', { name, email, password });
-        const { token: newToken, ...userData } = response.data;
-
-        localStorage.setItem('token', newToken);
-        api.defaults.headers.common['Authorization'] = `Bearer ${newToken}`;
-        setToken(newToken);
-        setUser(userData);
-
+        startSession(response.data);
         return response.data;
     };
 
     const logout = () => {
+        // Revoke server-side without waiting; the local session ends either way
+        const currentToken = localStorage.getItem('token');
+        if (currentToken) {
+            api.post('/api/auth/logout', { refreshToken: localStorage.getItem('refreshToken') },
+                { headers: { Authorization: `Bearer ${currentToken}` } }).catch(() => {});
+        }
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         delete api.defaults.headers.common['Authorization'];
         setToken(null);
         setUser(null);
@@ -72,6 +78,7 @@ export const AuthProvider = ({ children }) => {
         isAuthenticated: !!token,
         login,
         register,
+        startSession,
         logout
     };
 
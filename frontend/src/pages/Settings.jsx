@@ -11,7 +11,7 @@ import './Settings.css';
 
 const Settings = () => {
     const { theme, toggleTheme, isDark } = useTheme();
-    const { user, logout } = useAuth();
+    const { user, logout, startSession } = useAuth();
     const navigate = useNavigate();
     const fileInputRef = useRef(null);
 
@@ -111,10 +111,12 @@ const Settings = () => {
 
         setPasswordLoading(true);
         try {
-            await userAPI.changePassword({
+            // Every other session ends; keep this one with the returned token pair
+            const response = await userAPI.changePassword({
                 currentPassword: passwordForm.currentPassword,
                 newPassword: passwordForm.newPassword
             });
+            startSession(response.data);
             setPasswordSuccess(true);
             setPasswordForm({ currentPassword: '', newPassword: '', confirmPassword: '' });
             setTimeout(() => setPasswordSuccess(false), 3000);
@@ -22,14 +22,53 @@ api.interceptors.request.use(
     (error) => Promise.reject(error)
 );
 
+// Access tokens are short-lived: on a 401, trade the refresh token for a new
+// pair once and retry. Concurrent 401s share the same refresh request, since
+// each refresh token only works once.
+let refreshPromise = null;
+
+const refreshTokens = () => {
+    if (!refreshPromise) {
+        const refreshToken = localStorage.getItem('refreshToken');
+        refreshPromise = (refreshToken
+            ? axios.post(`${api.defaults.baseURL}/api/auth/refresh`, { refreshToken })
+            : Promise.reject(new Error('No refresh token')))
+            .then((response) => {
+                localStorage.setItem('token', response.data.token);
+                localStorage.setItem('refreshToken', response.data.refreshToken);
+                return response.data.token;
+            })
+            .finally(() => {
+                refreshPromise = null;
+            });
+    }
+    return refreshPromise;
+};
+
+const endSession = () => {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    window.location.href = '/login';
+};
+
 // Response interceptor - handle errors globally
 api.interceptors.response.use(
     (response) => response,
-    (error) => {
-        if (error.response?.status === 401) {
-            // Token expired or invalid
-            localStorage.removeItem('token');
-            window.location.href = '/login';
+    async (error) => {
+        const original = error.config;
+        if (error.response?.status === 401 && original && !original._retried
+            && !original.url?.startsWith('/api/auth/')) {
+            original._retried = true;
+            try {
+                const token = await refreshTokens();
+                original.headers.Authorization = `Bearer ${token}`;
+                return api(original);
+            } catch {
+                // Refresh token expired, revoked or reused
+                endSession();
+            }
+        } else if (error.response?.status === 401 && original?._retried) {
+            endSession();
         }
         return Promise.reject(error);
     }
@@ -46,7 +85,9 @@ export const authAPI = {
     verifyEmail: (token) => api.post(`/api/auth/verify-email?token=${token}`),
     resendVerification: (email) => api.post('/api/auth/resend-verification', { email }),
     forgotPassword: (email) => api.post('/api/auth/forgot-password', { email }),
-    resetPassword: (token, newPassword) => api.post('/api/auth/reset-password', { token, newPassword })
+    resetPassword: (token, newPassword) => api.post('/api/auth/reset-password', { token, newPassword }),
+    refresh: (refreshToken) => api.post('/api/auth/refresh', { refreshToken }),
+    logout: (refreshToken) => api.post('/api/auth/logout', { refreshToken })
 };
 
 // Habits
@@ -57,7 +98,8 @@ export const habitsAPI = {
     update: (id, data) => api.put(`/api/habits/${id}`, data),
     delete: (id) => api.delete(`/api/habits/${id}`),
     checkIn: (id) => api.post(`/api/habits/${id}/checkin`),
-    getHistory: (id, days = 30) => api.get(`/api/habits/${id}/history?days=${days}`),
+    // Paginated: pass the previous page's nextBefore as before
+    getHistory: (id, before, limit = 30) => api.get(`/api/habits/${id}/history`, { params: { before, limit } }),
     getStats: () => api.get('/api/habits/stats')
 };
 